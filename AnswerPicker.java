@@ -0,0 +1,420 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Picks the answer for a game, with easy words more likely on Easy and hard words more likely on Hard
+ * How hard a word is comes from a table worked out once and saved to a file: the number of guesses the hints
+ * need to solve it, plus how rare its letters are to tell apart words that need the same number of guesses
+ * Working it out searches for hundreds of hints on every core, so it is done ahead of time with
+ * java AnswerPicker and the game only reads the file
+ * Each tier gets an alias table so a weighted pick costs two random numbers and doesn't create any objects
+ *
+ * Layout of the file: int magic, int version, int number of answers, long fingerprint of the word lists,
+ * then one float per answer in the order of wordleWords.txt
+ */
+public final class AnswerPicker {
+
+    /**
+     * File that holds how hard every answer is, next to the word lists
+     */
+    static final Path FILE = WordLists.DIRECTORY.resolve("difficulty.bin");
+
+    /**
+     * Number at the start of every difficulty file, the letters DIFF
+     */
+    static final int MAGIC = 0x44494646;
+    /**
+     * Version of the layout
+     */
+    static final int VERSION = 1;
+    /**
+     * Size of the header in bytes
+     */
+    static final int HEADER_SIZE = 20;
+
+    /**
+     * How the answer of a game is picked
+     * Normal is first so key logs from before there were tiers read as Normal
+     */
+    public enum Tier {
+
+        /**
+         * Every answer is as likely as any other
+         */
+        NORMAL("Normal"),
+        /**
+         * Easier answers are more likely
+         */
+        EASY("Easy"),
+        /**
+         * Harder answers are more likely
+         */
+        HARD("Hard"),
+        /**
+         * The same answer for everyone all day, the same one the game server uses
+         */
+        DAILY("Daily");
+
+        /**
+         * Name shown on the button
+         */
+        private final String label;
+
+        /**
+         * Makes a tier
+         *
+         * @param label name shown on the button
+         */
+        Tier(String label) {
+            this.label = label;
+        }
+
+        /**
+         * Returns the name shown on the button
+         *
+         * @return String the name
+         */
+        public String label() {
+            return label;
+        }
+
+        /**
+         * Checks if this tier needs the difficulty table, the other tiers pick every answer equally
+         *
+         * @return boolean true for Easy and Hard
+         */
+        public boolean weighted() {
+            return this == EASY || this == HARD;
+        }
+
+        /**
+         * Returns how likely an answer is compared to the others
+         *
+         * @param rank where the answer is from 0 for the easiest to 1 for the hardest
+         * @return double the weight
+         */
+        double weight(double rank) {
+            if (this == EASY) {
+                return (1 - rank) * (1 - rank);
+            }
+            if (this == HARD) {
+                return rank * rank;
+            }
+            return 1;
+        }
+    }
+
+    /**
+     * How hard every answer is in the order of wordleWords.txt
+     */
+    private final float[] difficulty;
+    /**
+     * Chance of keeping the answer a pick lands on, for every tier
+     */
+    private final double[][] chances;
+    /**
+     * Answer used instead when the answer a pick lands on isn't kept, for every tier
+     */
+    private final int[][] aliases;
+    /**
+     * Reseeded for every pick so a seed always picks the same answer
+     */
+    private final Random random = new Random();
+
+    /**
+     * Makes a picker and the alias table of every tier
+     *
+     * @param difficulty how hard every answer is in the order of wordleWords.txt
+     */
+    AnswerPicker(float[] difficulty) {
+        this.difficulty = difficulty;
+        int count = difficulty.length;
+
+        // Ranks the answers from the easiest to the hardest, words that are as hard as each other keep their order
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Float.compare(difficulty[a], difficulty[b]));
+        double[] rank = new double[count];
+        for (int i = 0; i < count; i++) {
+            rank[order[i]] = count == 1 ? 0 : (double) i / (count - 1);
+        }
+
+        Tier[] tiers = Tier.values();
+        chances = new double[tiers.length][count];
+        aliases = new int[tiers.length][count];
+        double[] weights = new double[count];
+        for (Tier tier : tiers) {
+            for (int i = 0; i < count; i++) {
+                weights[i] = tier.weight(rank[i]);
+            }
+            aliasTable(weights, chances[tier.ordinal()], aliases[tier.ordinal()]);
+        }
+    }
+
+    /**
+     * Works out the difficulty file ahead of time and shows how hard each tier is
+     *
+     * @param args not used
+     */
+    public static void main(String[] args) {
+        WordLists lists = WordLists.get();
+        long start = System.nanoTime();
+        float[] difficulty = build(lists);
+        write(FILE, lists, difficulty);
+        System.out.printf("Built %s (%d bytes) in %.1f ms%n", FILE, HEADER_SIZE + difficulty.length * 4,
+                (System.nanoTime() - start) / 1e6);
+        AnswerPicker picker = new AnswerPicker(difficulty);
+        for (Tier tier : Tier.values()) {
+            System.out.printf("%-7s %.2f guesses on average%n", tier.label(), picker.expectedGuesses(tier));
+        }
+    }
+
+    /**
+     * Reads the difficulty file made ahead of time by main
+     * It is never worked out here since that would take every core away from the game while it is being played
+     *
+     * @param lists the word lists
+     * @return AnswerPicker the picker, or null if the file is missing or out of date
+     * @throws UncheckedIOException if the file couldn't be read
+     */
+    public static AnswerPicker open(WordLists lists) {
+        float[] difficulty = read(FILE, lists);
+        return difficulty == null ? null : new AnswerPicker(difficulty);
+    }
+
+    /**
+     * Reads a difficulty file if it was built from the same word lists
+     *
+     * @param file the difficulty file
+     * @param lists the word lists
+     * @return float[] how hard every answer is, or null if the file is missing or out of date
+     * @throws UncheckedIOException if the file couldn't be read
+     */
+    static float[] read(Path file, WordLists lists) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+            if (buffer.limit() != HEADER_SIZE + lists.answerCount() * 4 || buffer.getInt() != MAGIC
+                    || buffer.getInt() != VERSION || buffer.getInt() != lists.answerCount()
+                    || buffer.getLong() != lists.fingerprint()) {
+                return null;
+            }
+            float[] difficulty = new float[lists.answerCount()];
+            buffer.asFloatBuffer().get(difficulty);
+            return difficulty;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Couldn't read the difficulty table " + file.toAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Writes a difficulty file
+     * The table is written to a temporary file which is then moved into place
+     *
+     * @param file the difficulty file
+     * @param lists the word lists the table was built from
+     * @param difficulty how hard every answer is
+     * @throws UncheckedIOException if the file couldn't be written
+     */
+    static void write(Path file, WordLists lists, float[] difficulty) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + difficulty.length * 4);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(difficulty.length).putLong(lists.fingerprint());
+        buffer.asFloatBuffer().put(difficulty);
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.write(temp, buffer.array());
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Couldn't write the difficulty table " + file.toAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Works out how hard every answer is
+     * Every answer is solved by always taking the hint, splitting the answers that are still possible by the
+     * colours the hint gets, so each hint is only searched for once no matter how many answers reach it
+     * The searches run on every core and the opening book gives the first two guesses without searching
+     *
+     * @param lists the word lists
+     * @return float[] the number of guesses needed plus the rarity of the letters, for every answer
+     */
+    static float[] build(WordLists lists) {
+        HintCache cache = new HintCache(new HintEngine(lists.dictionary(), ForkJoinPool.commonPool()), HintCache.DEFAULT_CAPACITY);
+        cache.buildBook(lists);
+        int count = lists.answerCount();
+        int[] guesses = new int[count];
+        solve(cache, lists, new CandidateSet(lists.answers()), 0, guesses);
+
+        // Counts every letter of every answer, a word made of common letters is easier to find
+        int[] letterCounts = new int[26];
+        for (int i = 0; i < count; i++) {
+            for (int position = 0; position < WordDictionary.WORD_LENGTH; position++) {
+                letterCounts[WordDictionary.letterAt(lists.answer(i), position)]++;
+            }
+        }
+        int most = Arrays.stream(letterCounts).max().getAsInt();
+        float[] difficulty = new float[count];
+        IntStream.range(0, count).parallel().forEach(i -> {
+            double common = 0;
+            for (int position = 0; position < WordDictionary.WORD_LENGTH; position++) {
+                common += (double) letterCounts[WordDictionary.letterAt(lists.answer(i), position)] / most;
+            }
+            // The rarity is below 1 so it only matters between words that need the same number of guesses
+            difficulty[i] = guesses[i] + (float) (1 - common / WordDictionary.WORD_LENGTH);
+        });
+        return difficulty;
+    }
+
+    /**
+     * Takes the hint for some possible answers and then does the same for the answers left after every colouring
+     *
+     * @param cache gives the hints
+     * @param lists the word lists
+     * @param set the answers that are still possible
+     * @param made number of guesses made so far
+     * @param guesses where the number of guesses needed is written for every answer
+     */
+    private static void solve(HintCache cache, WordLists lists, CandidateSet set, int made, int[] guesses) {
+        // With two answers or less the hint is the first of them, so the second one takes one more guess
+        if (set.count() <= 2) {
+            int first = set.next(0);
+            guesses[first] = made + 1;
+            if (set.count() == 2) {
+                guesses[set.next(first + 1)] = made + 2;
+            }
+            return;
+        }
+        int hint = cache.suggest(set, null).result().join().guess();
+        for (int index = set.next(0); index >= 0; index = set.next(index + 1)) {
+            if (lists.answer(index) == hint) {
+                guesses[index] = made + 1;
+            }
+        }
+        for (int feedback = 0; feedback < Scorer.ALL_GREEN; feedback++) {
+            CandidateSet next = new CandidateSet(set);
+            if (next.apply(hint, feedback) > 0) {
+                solve(cache, lists, next, made + 1, guesses);
+            }
+        }
+    }
+
+    /**
+     * Fills in an alias table using Vose's method
+     * Every slot holds the chance of keeping its own answer and the answer to use otherwise, so a pick is one
+     * random slot and one random chance
+     *
+     * @param weights how likely each answer is, they don't have to add up to 1
+     * @param chance where the chance of keeping each slot's answer is written
+     * @param alias where the other answer of each slot is written
+     */
+    static void aliasTable(double[] weights, double[] chance, int[] alias) {
+        int count = weights.length;
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        // Scales the weights so the average is 1, then fills every slot that is under 1 from one that is over
+        double[] scaled = new double[count];
+        int[] small = new int[count];
+        int[] large = new int[count];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < count; i++) {
+            scaled[i] = weights[i] * count / total;
+            alias[i] = i;
+            if (scaled[i] < 1) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            chance[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] += scaled[less] - 1;
+            if (scaled[more] < 1) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // Whatever is left is 1 apart from rounding
+        while (largeCount > 0) {
+            chance[large[--largeCount]] = 1;
+        }
+        while (smallCount > 0) {
+            chance[small[--smallCount]] = 1;
+        }
+    }
+
+    /**
+     * Picks an answer for a tier
+     * A tier that picks every answer equally picks the same answer for a seed as KeyLog.pick
+     *
+     * @param tier how the answer is picked
+     * @param seed the seed of the game
+     * @return int position of the answer in wordleWords.txt
+     */
+    public int pick(Tier tier, long seed) {
+        random.setSeed(seed);
+        int slot = random.nextInt(difficulty.length);
+        double chance = chances[tier.ordinal()][slot];
+        if (chance >= 1 || random.nextDouble() < chance) {
+            return slot;
+        }
+        return aliases[tier.ordinal()][slot];
+    }
+
+    /**
+     * Returns the seed of the daily game, the same for everyone on the same day
+     *
+     * @param day the day
+     * @return long the seed
+     */
+    public static long dailySeed(LocalDate day) {
+        return day.toEpochDay();
+    }
+
+    /**
+     * Returns how hard an answer is
+     *
+     * @param index position of the answer in wordleWords.txt
+     * @return float the number of guesses the hints need plus the rarity of its letters from 0 to 1
+     */
+    public float difficulty(int index) {
+        return difficulty[index];
+    }
+
+    /**
+     * Works out the average number of guesses the hints need for the answers a tier picks
+     *
+     * @param tier the tier
+     * @return double the average number of guesses
+     */
+    public double expectedGuesses(Tier tier) {
+        double[] chance = chances[tier.ordinal()];
+        int[] alias = aliases[tier.ordinal()];
+        // Each slot is landed on equally and gives its own answer or its alias
+        double sum = 0;
+        for (int slot = 0; slot < difficulty.length; slot++) {
+            sum += chance[slot] * Math.floor(difficulty[slot]) + (1 - chance[slot]) * Math.floor(difficulty[alias[slot]]);
+        }
+        return sum / difficulty.length;
+    }
+}
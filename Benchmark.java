@@ -0,0 +1,1027 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Small benchmarks for the parts of the game that run on every key press
+ * Run with the name of a benchmark, for example: java Benchmark dictionary
+ * Running it with no name runs every benchmark
+ */
+public class Benchmark {
+
+    /**
+     * Seed used for every random word so results can be compared between runs
+     */
+    static final long SEED = 2022;
+
+    /**
+     * Stops the JIT from removing work whose result is never used
+     */
+    static long sink;
+
+    /**
+     * Runs the benchmarks named in the arguments
+     *
+     * @param args names of the benchmarks to run
+     */
+    public static void main(String[] args) {
+        boolean all = args.length == 0;
+        if (all || contains(args, "dictionary")) {
+            dictionary();
+        }
+        if (all || contains(args, "score")) {
+            score();
+        }
+        if (all || contains(args, "session")) {
+            session();
+        }
+        if (all || contains(args, "hint")) {
+            hint();
+        }
+        if (all || contains(args, "matrix")) {
+            matrix();
+        }
+        if (all || contains(args, "candidates")) {
+            candidates();
+        }
+        if (all || contains(args, "adversary")) {
+            adversary();
+        }
+        if (all || contains(args, "prefix")) {
+            prefix();
+        }
+        if (all || contains(args, "boards")) {
+            boards();
+        }
+        if (all || contains(args, "letters")) {
+            letters();
+        }
+        if (all || contains(args, "input")) {
+            input();
+        }
+        if (all || contains(args, "snapshot")) {
+            snapshot();
+        }
+        if (all || contains(args, "replay")) {
+            replay();
+        }
+        if (all || contains(args, "openings")) {
+            openings();
+        }
+        if (all || contains(args, "picks")) {
+            picks();
+        }
+        if (all || contains(args, "suggest")) {
+            suggest();
+        }
+        if (all || contains(args, "server")) {
+            server();
+        }
+        System.out.println("sink " + sink);
+    }
+
+    /**
+     * Compares the old ArrayList lookup with the packed dictionary as the word list grows
+     */
+    static void dictionary() {
+        System.out.println("dictionary lookup (ns per lookup)");
+        System.out.printf("%10s %14s %14s%n", "words", "ArrayList", "WordDictionary");
+        for (int size : new int[] {1_000, 10_000, 100_000, 200_000}) {
+            Random rand = new Random(SEED);
+            ArrayList<String> list = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                list.add(new String(randomWord(rand)).toLowerCase());
+            }
+            WordDictionary dictionary = WordDictionary.of(list);
+
+            // Half of the guesses are real words and half are random letters
+            char[][] guesses = new char[1024][];
+            for (int i = 0; i < guesses.length; i++) {
+                guesses[i] = i % 2 == 0 ? list.get(rand.nextInt(size)).toUpperCase().toCharArray() : randomWord(rand);
+            }
+
+            // The list is so slow that it gets fewer rounds
+            int listRounds = Math.max(2_000, 20_000_000 / size);
+            double listTime = time(listRounds, i -> list.contains(new String(guesses[i & 1023]).toLowerCase()) ? 1 : 0);
+            double dictionaryTime = time(5_000_000, i -> dictionary.contains(guesses[i & 1023]) ? 1 : 0);
+            System.out.printf("%10d %14.1f %14.1f%n", size, listTime, dictionaryTime);
+        }
+    }
+
+    /**
+     * Times scoring random guesses against random answers
+     */
+    static void score() {
+        Random rand = new Random(SEED);
+        int[] words = new int[4096];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = WordDictionary.pack(randomWord(rand));
+        }
+        double scoreTime = time(50_000_000, i -> Scorer.score(words[i & 4095], words[(i >>> 12) & 4095]));
+        System.out.printf("score: %.1f ns per guess%n", scoreTime);
+    }
+
+    /**
+     * Plays whole games through GameSession on one thread and then on every core
+     * Each game types and submits random dictionary words until it is won or lost
+     */
+    static void session() {
+        Random rand = new Random(SEED);
+        ArrayList<String> list = new ArrayList<>();
+        for (int i = 0; i < 13_000; i++) {
+            list.add(new String(randomWord(rand)));
+        }
+        WordDictionary dictionary = WordDictionary.of(list);
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int parallel : threads == 1 ? new int[] {1} : new int[] {1, threads}) {
+            int games = 2_000_000;
+            LongAdder submits = new LongAdder();
+            // Warms up before timing
+            playGames(dictionary, games / 4, parallel, new LongAdder());
+            long start = System.nanoTime();
+            playGames(dictionary, games, parallel, submits);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("session (%d threads): %.0f sessions/sec, %.0f submits/sec%n",
+                    parallel, games / seconds, submits.sum() / seconds);
+        }
+    }
+
+    /**
+     * Plays a number of games split across threads
+     *
+     * @param dictionary the dictionary to use
+     * @param games how many games to play
+     * @param threads how many threads to split the games across
+     * @param submits counts every accepted guess
+     */
+    static void playGames(WordDictionary dictionary, int games, int threads, LongAdder submits) {
+        IntStream.range(0, threads).parallel().forEach(thread -> {
+            Random rand = new Random(SEED + thread);
+            long accepted = 0;
+            for (int game = thread; game < games; game += threads) {
+                GameSession session = new GameSession(dictionary, dictionary.get(rand.nextInt(dictionary.size())));
+                while (!session.isOver()) {
+                    int guess = dictionary.get(rand.nextInt(dictionary.size()));
+                    for (int x = 0; x < 5; x++) {
+                        session.type((char) ('A' + WordDictionary.letterAt(guess, x)));
+                    }
+                    if (session.submit().isAccepted()) {
+                        accepted++;
+                    }
+                }
+            }
+            submits.add(accepted);
+        });
+    }
+
+    /**
+     * Times a first guess hint over the real word lists with 1 thread up to every core
+     * Needs the word lists in src/main/java so it has to be run from the project folder
+     */
+    static void hint() {
+        WordLists lists = WordLists.get();
+        int[] answers = new int[lists.answerCount()];
+        for (int i = 0; i < answers.length; i++) {
+            answers[i] = lists.answer(i);
+        }
+        System.out.printf("hint over %d guesses x %d answers%n", lists.dictionary().size(), answers.length);
+        double single = 0;
+        for (int threads = 1; threads <= Runtime.getRuntime().availableProcessors(); threads *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            HintEngine engine = new HintEngine(lists.dictionary(), pool);
+            // Warms up before timing
+            engine.suggest(answers, answers.length, null).result().join();
+            long start = System.nanoTime();
+            HintEngine.Hint hint = engine.suggest(answers, answers.length, null).result().join();
+            double millis = (System.nanoTime() - start) / 1e6;
+            if (threads == 1) {
+                single = millis;
+            }
+            System.out.printf("%3d threads: %8.1f ms (%.2fx) %s%n", threads, millis, single / millis, hint);
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Times building the feedback matrix and compares looking scores up in it with working them out
+     * Needs the word lists in src/main/java so it has to be run from the project folder
+     */
+    static void matrix() {
+        WordLists lists = WordLists.get();
+        long start = System.nanoTime();
+        FeedbackMatrix.build(FeedbackMatrix.FILE, lists);
+        double buildTime = (System.nanoTime() - start) / 1e6;
+        FeedbackMatrix matrix = FeedbackMatrix.open(lists);
+        System.out.printf("matrix: %d x %d built in %.1f ms, %d bytes%n",
+                matrix.guessCount(), matrix.answerCount(), buildTime, FeedbackMatrix.size(lists));
+
+        // Random pairs of guesses and answers
+        Random rand = new Random(SEED);
+        int[] guessIndexes = new int[4096];
+        int[] answerIndexes = new int[4096];
+        for (int i = 0; i < guessIndexes.length; i++) {
+            guessIndexes[i] = rand.nextInt(matrix.guessCount());
+            answerIndexes[i] = rand.nextInt(matrix.answerCount());
+        }
+        WordDictionary dictionary = lists.dictionary();
+        double scoreTime = time(50_000_000, i -> Scorer.score(dictionary.get(guessIndexes[i & 4095]),
+                lists.answer(answerIndexes[(i >>> 12) & 4095])));
+        double lookupTime = time(50_000_000, i -> matrix.feedback(guessIndexes[i & 4095], answerIndexes[(i >>> 12) & 4095]));
+        System.out.printf("random pairs: %.1f ns scored, %.1f ns looked up%n", scoreTime, lookupTime);
+
+        // Whole rows, which is how the solver reads the matrix
+        int answers = matrix.answerCount();
+        double rowScore = time(20_000, i -> {
+            int guess = dictionary.get(guessIndexes[i & 4095]);
+            long sum = 0;
+            for (int a = 0; a < answers; a++) {
+                sum += Scorer.score(guess, lists.answer(a));
+            }
+            return sum;
+        });
+        double rowLookup = time(20_000, i -> {
+            int guess = guessIndexes[i & 4095];
+            long sum = 0;
+            for (int a = 0; a < answers; a++) {
+                sum += matrix.feedback(guess, a);
+            }
+            return sum;
+        });
+        System.out.printf("whole rows: %.1f ns scored, %.1f ns looked up per pair%n", rowScore / answers, rowLookup / answers);
+    }
+
+    /**
+     * Times narrowing the possible answers after the first guess, which is the slowest update since every
+     * answer is still possible, for the current number of answers and for 10 times as many
+     */
+    static void candidates() {
+        System.out.println("candidate update after the first guess (microseconds, one frame is 16667)");
+        for (int size : new int[] {2_309, 23_090}) {
+            Random rand = new Random(SEED);
+            int[] answers = new int[size];
+            for (int i = 0; i < size; i++) {
+                answers[i] = WordDictionary.pack(randomWord(rand));
+            }
+            CandidateSet candidates = new CandidateSet(IntBuffer.wrap(answers));
+            double time = time(20_000, i -> {
+                int guess = answers[(i * 7919) % size];
+                int answer = answers[i % size];
+                candidates.reset();
+                return candidates.apply(guess, Scorer.score(guess, answer));
+            });
+            System.out.printf("%8d answers: %8.1f us%n", size, time / 1000);
+        }
+    }
+
+    /**
+     * Times an adversarial game picking the score of the first guess, which is the slowest one since every
+     * answer is still possible, for the current number of answers and for 10 times as many
+     */
+    static void adversary() {
+        System.out.println("adversarial score of the first guess (microseconds, one frame is 16667)");
+        for (int size : new int[] {2_309, 23_090}) {
+            Random rand = new Random(SEED);
+            int[] answers = new int[size];
+            for (int i = 0; i < size; i++) {
+                answers[i] = WordDictionary.pack(randomWord(rand));
+            }
+            CandidateSet candidates = new CandidateSet(IntBuffer.wrap(answers));
+            double time = time(20_000, i -> {
+                candidates.reset();
+                return candidates.keepLargestBucket(answers[(i * 7919) % size]);
+            });
+            candidates.reset();
+            candidates.keepLargestBucket(answers[0]);
+            System.out.printf("%8d answers: %8.1f us, %d answers left after guessing %s%n", size, time / 1000,
+                    candidates.count(), WordDictionary.unpack(answers[0]));
+        }
+    }
+
+    /**
+     * Compares the memory of the prefix graph with the list of Strings it replaces and times one keystroke,
+     * for the real english words and for a list 10 times as big
+     * Needs the word lists in src/main/java so it has to be run from the project folder
+     */
+    static void prefix() {
+        WordDictionary english = WordLists.get().dictionary();
+        System.out.println("prefix graph (memory in KB, ns per keystroke)");
+        System.out.printf("%10s %8s %10s %12s %14s %10s%n", "words", "nodes", "build ms", "graph KB", "ArrayList KB", "keystroke");
+        Random rand = new Random(SEED);
+        ArrayList<String> bigger = new ArrayList<>();
+        for (int i = 0; i < english.size() * 10; i++) {
+            bigger.add(new String(randomWord(rand)));
+        }
+        for (WordDictionary dictionary : new WordDictionary[] {english, WordDictionary.of(bigger)}) {
+            long start = System.nanoTime();
+            WordDawg dawg = WordDawg.of(dictionary);
+            double buildTime = (System.nanoTime() - start) / 1e6;
+            // Each String is a 24 byte object with a 24 byte array of 5 letters and a 4 byte reference in the list
+            long listBytes = 16 + 52L * dictionary.size();
+
+            // Types real words and random letters one keystroke at a time
+            int[] words = new int[4096];
+            for (int i = 0; i < words.length; i++) {
+                words[i] = i % 2 == 0 ? dictionary.get(rand.nextInt(dictionary.size())) : WordDictionary.pack(randomWord(rand));
+            }
+            double keystroke = time(50_000_000, i -> {
+                int node = dawg.root();
+                int word = words[(i / WordDictionary.WORD_LENGTH) & 4095];
+                for (int letter = 0; letter <= i % WordDictionary.WORD_LENGTH; letter++) {
+                    node = dawg.step(node, WordDictionary.letterAt(word, letter));
+                }
+                return node;
+            });
+            // Each round walks from the root so it is divided by the average number of steps
+            System.out.printf("%10d %8d %10.1f %12.1f %14.1f %10.1f%n", dictionary.size(), dawg.nodeCount(), buildTime,
+                    dawg.memoryBytes() / 1024.0, listBytes / 1024.0, keystroke / 3);
+        }
+    }
+
+    /**
+     * Times one guess on 1 to 16 boards, scoring every board in one pass compared with scoring them one at a time,
+     * and then a whole multi board game through MultiBoardSession
+     */
+    static void boards() {
+        Random rand = new Random(SEED);
+        ArrayList<String> list = new ArrayList<>();
+        for (int i = 0; i < 13_000; i++) {
+            list.add(new String(randomWord(rand)));
+        }
+        WordDictionary dictionary = WordDictionary.of(list);
+
+        System.out.println("guess on every board (ns per guess)");
+        System.out.printf("%8s %12s %12s %16s%n", "boards", "score", "scoreAll", "game (us)");
+        for (int boards : new int[] {1, 4, 8, 16}) {
+            int[] answers = new int[boards];
+            for (int i = 0; i < boards; i++) {
+                answers[i] = dictionary.get(rand.nextInt(dictionary.size()));
+            }
+            int[] scores = new int[boards];
+            double single = time(5_000_000, i -> {
+                int guess = dictionary.get(i % dictionary.size());
+                long total = 0;
+                for (int board = 0; board < boards; board++) {
+                    total += Scorer.score(guess, answers[board]);
+                }
+                return total;
+            });
+            double together = time(5_000_000, i -> {
+                Scorer.scoreAll(dictionary.get(i % dictionary.size()), answers, boards, scores);
+                return scores[boards - 1];
+            });
+            // Plays every row of a game with random guesses, which is the most scoring a game can need
+            double game = time(200_000, i -> {
+                MultiBoardSession session = new MultiBoardSession(dictionary, answers);
+                int guess = i;
+                while (!session.isOver()) {
+                    int word = dictionary.get((guess++ * 7919 & Integer.MAX_VALUE) % dictionary.size());
+                    for (int x = 0; x < 5; x++) {
+                        session.type((char) ('A' + WordDictionary.letterAt(word, x)));
+                    }
+                    session.submit();
+                }
+                return session.row();
+            });
+            System.out.printf("%8d %12.1f %12.1f %16.2f%n", boards, single, together, game / 1000);
+        }
+    }
+
+    /**
+     * Counts the paints that change a square or a letter after each guess, painting everything dark grey first
+     * and then green or purple compared with painting from the change sets of LetterStates
+     * A paint that sets the colour a node already has doesn't change anything so it isn't counted
+     * Needs the word lists in src/main/java so it has to be run from the project folder
+     */
+    static void letters() {
+        WordLists lists = WordLists.get();
+        IntBuffer answers = lists.answers();
+        Random rand = new Random(SEED);
+        int games = 200_000;
+        long guesses = 0;
+        long oldPaints = 0;
+        long newPaints = 0;
+        long downgrades = 0;
+        // Colour of every letter with the old way of painting, 0 is not guessed and then the colour plus one
+        int[] oldLetters = new int[26];
+        LetterStates states = new LetterStates();
+        for (int game = 0; game < games; game++) {
+            int answer = answers.get(rand.nextInt(answers.limit()));
+            Arrays.fill(oldLetters, LetterStates.UNUSED);
+            states.reset();
+            for (int row = 0; row < GameSession.ROWS; row++) {
+                int guess = answers.get(rand.nextInt(answers.limit()));
+                int feedback = Scorer.score(guess, answer);
+                guesses++;
+
+                // Every square was painted dark grey and then painted again if it was green or purple
+                for (int x = 0; x < 5; x++) {
+                    oldPaints += Scorer.colorAt(feedback, x) == Scorer.GREY ? 1 : 2;
+                }
+                for (int x = 0; x < 5; x++) {
+                    int letter = WordDictionary.letterAt(guess, x);
+                    if (oldLetters[letter] != LetterStates.ABSENT) {
+                        oldLetters[letter] = LetterStates.ABSENT;
+                        oldPaints++;
+                    }
+                }
+                for (int pass : new int[] {Scorer.GREEN, Scorer.PURPLE}) {
+                    for (int x = 0; x < 5; x++) {
+                        int letter = WordDictionary.letterAt(guess, x);
+                        if (Scorer.colorAt(feedback, x) == pass && oldLetters[letter] != pass + 1) {
+                            oldLetters[letter] = pass + 1;
+                            oldPaints++;
+                        }
+                    }
+                }
+
+                newPaints += 5 + Integer.bitCount(states.apply(guess, feedback));
+                for (int i = 0; i < 26; i++) {
+                    if (oldLetters[i] < states.state(i)) {
+                        downgrades++;
+                    }
+                }
+                if (feedback == Scorer.ALL_GREEN) {
+                    break;
+                }
+            }
+        }
+        System.out.printf("paints per guess: %.2f before, %.2f with change sets (%d guesses)%n",
+                (double) oldPaints / guesses, (double) newPaints / guesses, guesses);
+        System.out.printf("letters shown below what the user knows: %.3f per guess before, 0 now%n",
+                (double) downgrades / guesses);
+
+        int[] guessWords = new int[4096];
+        for (int i = 0; i < guessWords.length; i++) {
+            guessWords[i] = answers.get(rand.nextInt(answers.limit()));
+        }
+        double time = time(10_000_000, i -> {
+            if ((i & 7) == 0) {
+                states.reset();
+            }
+            int guess = guessWords[i & 4095];
+            return states.apply(guess, Scorer.score(guess, guessWords[(i >>> 12) & 4095]));
+        });
+        System.out.printf("LetterStates.apply with scoring: %.1f ns per guess%n", time);
+    }
+
+    /**
+     * Types bursts of keys at 50 to 1000 keys a second into a KeyQueue that is handled once every 60 Hz frame
+     * and measures how long each key waits until the end of the frame that handles it
+     * The frames are simulated but handling the keys is real, drawing the frame isn't included since there is
+     * no screen, the inputToFrame probe measures that while playing
+     * Also counts the tile animations playing at once with a new one for every key compared with one reusable
+     * animation per square and per row that is capped at Wordle.MAX_ANIMATIONS
+     * Needs the word lists in src/main/java so it has to be run from the project folder
+     */
+    static void input() {
+        WordLists lists = WordLists.get();
+        WordDictionary dictionary = lists.dictionary();
+        IntBuffer answers = lists.answers();
+        long frame = 16_666_667;
+        long animation = 200_000_000;
+        System.out.println("keys in bursts, handled once per 60 Hz frame (latency in ms)");
+        System.out.printf("%10s %8s %8s %8s %12s %14s%n", "keys/sec", "p50", "p99", "max", "keys/frame", "animations");
+        for (int rate : new int[] {50, 100, 250, 1000}) {
+            Random rand = new Random(SEED);
+            Metrics.LatencyHistogram latency = new Metrics.LatencyHistogram();
+            KeyQueue queue = new KeyQueue();
+            GameSession session = new GameSession(dictionary, answers.get(0));
+            LetterStates states = new LetterStates();
+            int keys = rate * 20;
+            long gap = 1_000_000_000L / rate;
+
+            // Writes whole guesses: 5 letters then enter, starting a new game when one ends
+            int[] script = new int[keys];
+            for (int i = 0; i < keys; i += 6) {
+                int word = answers.get(rand.nextInt(answers.limit()));
+                for (int x = 0; x < 6 && i + x < keys; x++) {
+                    script[i + x] = x < 5 ? WordDictionary.letterAt(word, x) : KeyLog.ENTER;
+                }
+            }
+
+            // Ends of the animations playing with a new one for every key
+            ArrayList<Long> oldEnds = new ArrayList<>();
+            int oldMax = 0;
+            // End of the animation of every square and row with the reusable ones
+            long[] squareEnds = new long[GameSession.ROWS * GameSession.COLUMNS];
+            long[] rowEnds = new long[GameSession.ROWS];
+            int newMax = 0;
+
+            int next = 0;
+            long framesWithKeys = 0;
+            for (long now = 0; next < keys || !queue.isEmpty(); now += frame) {
+                // Every key pressed before this frame joins the queue
+                while (next < keys && next * gap <= now) {
+                    queue.add(script[next], next * gap);
+                    next++;
+                }
+                if (queue.isEmpty()) {
+                    continue;
+                }
+                framesWithKeys++;
+                long start = System.nanoTime();
+                for (int key = queue.poll(); key != KeyQueue.EMPTY; key = queue.poll()) {
+                    long pressed = queue.polledTime();
+                    int column = session.column();
+                    int row = session.row();
+                    if (key == KeyLog.ENTER) {
+                        GuessResult result = session.submit();
+                        if (result.isAccepted()) {
+                            states.apply(result.guess(), result.feedback());
+                            // Enter used to make a new animation for each of the 5 squares
+                            for (int x = 0; x < GameSession.COLUMNS; x++) {
+                                oldEnds.add(pressed + animation);
+                            }
+                            int running = countRunning(squareEnds, now) + countRunning(rowEnds, now);
+                            if (rowEnds[result.row()] > now || running < Wordle.MAX_ANIMATIONS) {
+                                rowEnds[result.row()] = now + animation;
+                            }
+                        }
+                        if (session.isOver()) {
+                            session = new GameSession(dictionary, answers.get(rand.nextInt(answers.limit())));
+                            states.reset();
+                        }
+                    } else if (session.type((char) ('A' + key))) {
+                        oldEnds.add(pressed + animation);
+                        int square = row * GameSession.COLUMNS + column;
+                        int running = countRunning(squareEnds, now) + countRunning(rowEnds, now);
+                        if (squareEnds[square] > now || running < Wordle.MAX_ANIMATIONS) {
+                            squareEnds[square] = now + animation;
+                        }
+                    }
+                    latency.record(now - pressed + System.nanoTime() - start);
+                }
+                long frameTime = now;
+                oldEnds.removeIf(end -> end <= frameTime);
+                oldMax = Math.max(oldMax, oldEnds.size());
+                newMax = Math.max(newMax, countRunning(squareEnds, now) + countRunning(rowEnds, now));
+            }
+            System.out.printf("%10d %8.2f %8.2f %8.2f %12.1f %6d -> %5d%n", rate, latency.percentile(50) / 1e6,
+                    latency.percentile(99) / 1e6, latency.max() / 1e6, (double) keys / framesWithKeys, oldMax, newMax);
+        }
+    }
+
+    /**
+     * Counts the animations that are still playing
+     *
+     * @param ends the time every animation ends
+     * @param now the current time
+     * @return int the number that end after now
+     */
+    static int countRunning(long[] ends, long now) {
+        int running = 0;
+        for (long end : ends) {
+            if (end > now) {
+                running++;
+            }
+        }
+        return running;
+    }
+
+    /**
+     * Saves a million games part way through into one buffer of snapshots and then restores every one of them
+     * A quarter of the games are in hard mode, adversarial games aren't included since restoring one has to
+     * look through the answers again
+     * Needs the word lists in src/main/java so it has to be run from the project folder
+     */
+    static void snapshot() {
+        WordLists lists = WordLists.get();
+        WordDictionary dictionary = lists.dictionary();
+        IntBuffer answers = lists.answers();
+        int games = 1_000_000;
+        Random rand = new Random(SEED);
+        GameSession[] sessions = new GameSession[games];
+        for (int i = 0; i < games; i++) {
+            GameSession session = new GameSession(dictionary, answers.get(rand.nextInt(answers.limit())));
+            session.setHardMode(i % 4 == 0);
+            // Makes up to 5 guesses and types part of the next one
+            int guesses = rand.nextInt(6);
+            for (int g = 0; g < guesses && !session.isOver(); g++) {
+                int word = answers.get(rand.nextInt(answers.limit()));
+                for (int x = 0; x < 5; x++) {
+                    session.type((char) ('A' + WordDictionary.letterAt(word, x)));
+                }
+                if (!session.submit().isAccepted()) {
+                    for (int x = 0; x < 5; x++) {
+                        session.backspace();
+                    }
+                }
+            }
+            for (int x = rand.nextInt(5); x > 0; x--) {
+                session.type((char) ('A' + rand.nextInt(26)));
+            }
+            sessions[i] = session;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(games * GameSession.SNAPSHOT_SIZE);
+        GameSession[] restored = new GameSession[games];
+        for (int round = 0; round < 3; round++) {
+            buffer.clear();
+            long start = System.nanoTime();
+            for (GameSession session : sessions) {
+                session.snapshot(buffer);
+            }
+            long saved = System.nanoTime() - start;
+
+            buffer.flip();
+            start = System.nanoTime();
+            for (int i = 0; i < games; i++) {
+                restored[i] = GameSession.restore(dictionary, answers, buffer);
+            }
+            long loaded = System.nanoTime() - start;
+            // Only the last round is printed, the others warm up
+            if (round == 2) {
+                System.out.printf("snapshot %d games (%d MB): %.0f ns each, %.1fM/sec%n", games,
+                        buffer.limit() >> 20, (double) saved / games, games / (saved / 1e9) / 1e6);
+                System.out.printf("restore  %d games: %.0f ns each, %.1fM/sec%n", games, (double) loaded / games,
+                        games / (loaded / 1e9) / 1e6);
+            }
+        }
+        int different = 0;
+        for (int i = 0; i < games; i++) {
+            if (restored[i].row() != sessions[i].row() || restored[i].typedWord() != sessions[i].typedWord()
+                    || restored[i].answer() != sessions[i].answer() || restored[i].isHardMode() != sessions[i].isHardMode()) {
+                different++;
+            }
+        }
+        System.out.println("games that came back different: " + different);
+    }
+
+    /**
+     * Records games into a key log the way the game screen does and then replays the log without a screen
+     * The games mix real guesses with typos that are backspaced and words that aren't in the dictionary
+     * A log recorded while playing can be replayed the same way with: java KeyReplay file
+     * Needs the word lists in src/main/java so it has to be run from the project folder
+     */
+    static void replay() {
+        WordLists lists = WordLists.get();
+        WordDictionary dictionary = lists.dictionary();
+        IntBuffer answers = lists.answers();
+        int games = 100_000;
+        Random rand = new Random(SEED);
+        Path file;
+        try {
+            file = Files.createTempFile("keys", ".bin");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        try (KeyLog log = KeyLog.create(file)) {
+            for (int game = 0; game < games; game++) {
+                long seed = rand.nextLong();
+                boolean hardMode = game % 4 == 0;
+                int answer = answers.get(KeyLog.pick(seed, answers.limit()));
+                GameSession session = new GameSession(dictionary, answer);
+                session.setHardMode(hardMode);
+                log.startGame(seed, answer, hardMode, false, AnswerPicker.Tier.NORMAL);
+                int rejected = 0;
+                while (!session.isOver()) {
+                    int guess = rand.nextInt(8) == 0 ? WordDictionary.pack(randomWord(rand))
+                            : answers.get(rand.nextInt(answers.limit()));
+                    // Random words rarely follow hard mode so the player works out the word after a few tries
+                    if (rejected == 3) {
+                        guess = answer;
+                    }
+                    for (int x = 0; x < 5; x++) {
+                        int letter = WordDictionary.letterAt(guess, x);
+                        // Sometimes types the wrong letter first and takes it back
+                        if (rand.nextInt(20) == 0) {
+                            press(session, log, (letter + 1) % 26);
+                            press(session, log, KeyLog.BACKSPACE);
+                        }
+                        press(session, log, letter);
+                    }
+                    press(session, log, KeyLog.ENTER);
+                    rejected = session.column() == 0 ? 0 : rejected + 1;
+                    // A guess that wasn't accepted is cleared like a player would
+                    for (int x = 0; x < session.column(); ) {
+                        press(session, log, KeyLog.BACKSPACE);
+                    }
+                }
+                log.endGame(session);
+            }
+        }
+
+        try {
+            long size = Files.size(file);
+            KeyReplay replay = new KeyReplay(dictionary, answers);
+            // Warms up with one run before the one that is printed
+            replay.replay(KeyLog.Reader.open(file));
+            KeyReplay.Result result = replay.replay(KeyLog.Reader.open(file));
+            System.out.println("replay " + result);
+            System.out.printf("log: %d bytes, %.2f bytes per key%n", size, (double) size / result.keys);
+            Files.delete(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Gives a key to a game and records it
+     *
+     * @param session the game
+     * @param log the key log
+     * @param key 0 to 25 for a letter, ENTER or BACKSPACE
+     */
+    static void press(GameSession session, KeyLog log, int key) {
+        log.key(key);
+        KeyReplay.press(session, key);
+    }
+
+    /**
+     * Builds the opening book and plays games that always take the hint, timing every hint
+     * Hints that come from the book or the recently used hints are compared with the ones that had to be searched for
+     * Needs the word lists in src/main/java so it has to be run from the project folder
+     */
+    static void openings() {
+        WordLists lists = WordLists.get();
+        HintEngine engine = new HintEngine(lists.dictionary(), ForkJoinPool.commonPool());
+        long start = System.nanoTime();
+        Map<Long, HintEngine.Hint> book = HintCache.build(lists, engine, HintCache.DEFAULT_DEPTH);
+        HintCache.write(HintCache.FILE, lists, HintCache.DEFAULT_DEPTH, book);
+        double buildTime = (System.nanoTime() - start) / 1e6;
+        start = System.nanoTime();
+        HintCache cache = new HintCache(engine, HintCache.DEFAULT_CAPACITY);
+        cache.openBook(lists).join();
+        double readTime = (System.nanoTime() - start) / 1e6;
+        System.out.printf("openings: %d positions built in %.1f ms, %d bytes read back in %.2f ms%n", cache.bookSize(),
+                buildTime, HintCache.HEADER_SIZE + cache.bookSize() * HintCache.ENTRY_SIZE, readTime);
+
+        // Every game takes the hint until it is solved, so the same positions come up again and again
+        Random rand = new Random(SEED);
+        CandidateSet set = new CandidateSet(lists.answers());
+        long hitTime = 0;
+        long missTime = 0;
+        int hits = 0;
+        int misses = 0;
+        int games = 500;
+        for (int game = 0; game < games; game++) {
+            int answer = lists.answer(rand.nextInt(lists.answerCount()));
+            set.reset();
+            for (int row = 0; row < GameSession.ROWS && set.count() > 2; row++) {
+                long time = System.nanoTime();
+                HintEngine.Search search = cache.suggest(set, null);
+                boolean hit = search.result().isDone();
+                int guess = search.result().join().guess();
+                time = System.nanoTime() - time;
+                if (hit) {
+                    hitTime += time;
+                    hits++;
+                } else {
+                    missTime += time;
+                    misses++;
+                }
+                int feedback = Scorer.score(guess, answer);
+                if (feedback == Scorer.ALL_GREEN) {
+                    break;
+                }
+                set.apply(guess, feedback);
+            }
+        }
+        System.out.printf("%d games: %s%n", games, cache);
+        System.out.printf("cached hint %.2f us, searched hint %.2f ms (%.0fx faster)%n", hitTime / 1e3 / hits,
+                missTime / 1e6 / misses, ((double) missTime / misses) / ((double) hitTime / hits));
+    }
+
+    /**
+     * Times working out the difficulty table and compares a weighted pick with the old uniform pick
+     * Needs the word lists in src/main/java so it has to be run from the project folder
+     */
+    static void picks() {
+        WordLists lists = WordLists.get();
+        long start = System.nanoTime();
+        float[] difficulty = AnswerPicker.build(lists);
+        double buildTime = (System.nanoTime() - start) / 1e6;
+        AnswerPicker picker = new AnswerPicker(difficulty);
+        System.out.printf("picks: difficulty of %d answers worked out in %.1f ms%n", difficulty.length, buildTime);
+
+        int count = lists.answerCount();
+        double uniformTime = time(10_000_000, i -> KeyLog.pick(i, count));
+        System.out.printf("%-7s %6.1f ns per pick (new Random each time)%n", "uniform", uniformTime);
+        for (AnswerPicker.Tier tier : AnswerPicker.Tier.values()) {
+            double pickTime = time(10_000_000, i -> picker.pick(tier, i));
+            System.out.printf("%-7s %6.1f ns per pick, %.2f guesses on average%n", tier.label(), pickTime,
+                    picker.expectedGuesses(tier));
+        }
+    }
+
+    /**
+     * Times finding the 5 closest words to a typo, for the real dictionary and for a made up one of 200,000 words
+     * Every typo is a dictionary word with one or two letters changed, and the index is compared with checking
+     * the edit distance to every word
+     * Needs the word lists in src/main/java so it has to be run from the project folder
+     */
+    static void suggest() {
+        WordLists lists = WordLists.get();
+        int[] answers = new int[lists.answerCount()];
+        for (int i = 0; i < answers.length; i++) {
+            answers[i] = lists.answer(i);
+        }
+        WordDictionary common = WordDictionary.ofPacked(answers, answers.length);
+        Random rand = new Random(SEED);
+        ArrayList<String> made = new ArrayList<>();
+        for (int i = 0; i < lists.dictionary().size(); i++) {
+            made.add(WordDictionary.unpack(lists.dictionary().get(i)));
+        }
+        while (made.size() < 200_000) {
+            made.add(new String(randomWord(rand)));
+        }
+
+        System.out.printf("%10s %10s %14s %14s %14s%n", "words", "build ms", "index us", "p99 us", "scan us");
+        for (WordDictionary dictionary : new WordDictionary[] {lists.dictionary(), WordDictionary.of(made)}) {
+            long start = System.nanoTime();
+            SpellIndex index = new SpellIndex(dictionary, common);
+            double buildTime = (System.nanoTime() - start) / 1e6;
+
+            int[] typos = new int[4096];
+            for (int i = 0; i < typos.length; i++) {
+                char[] word = WordDictionary.unpack(lists.dictionary().get(rand.nextInt(lists.dictionary().size()))).toCharArray();
+                for (int changes = 1 + rand.nextInt(2); changes > 0; changes--) {
+                    word[rand.nextInt(word.length)] = (char) ('A' + rand.nextInt(26));
+                }
+                typos[i] = WordDictionary.pack(word);
+            }
+            double indexTime = time(20_000, i -> index.suggest(typos[i & 4095], 5).length);
+            long[] each = new long[typos.length];
+            for (int i = 0; i < typos.length; i++) {
+                long time = System.nanoTime();
+                sink += index.suggest(typos[i], 5).length;
+                each[i] = System.nanoTime() - time;
+            }
+            Arrays.sort(each);
+            int[] peq = new int[26];
+            double scanTime = time(200, i -> {
+                SpellIndex.masks(typos[i & 4095], peq);
+                long close = 0;
+                for (int w = 0; w < dictionary.size(); w++) {
+                    if (SpellIndex.distance(peq, dictionary.get(w)) <= SpellIndex.MAX_DISTANCE) {
+                        close++;
+                    }
+                }
+                return close;
+            });
+            System.out.printf("%10d %10.1f %14.1f %14.1f %14.1f%n", index.size(), buildTime, indexTime / 1e3,
+                    each[each.length * 99 / 100] / 1e3, scanTime / 1e3);
+        }
+    }
+
+    /**
+     * Plays games on a GameServer over the loopback address with every game waiting on a guess at the same time,
+     * and measures how long each guess takes
+     * For each number of games, every game is started first, then each round sends one guess for every game at
+     * once so that many requests and connections are open together, and waits for all of them before the next
+     * The numbers of games are 10,000, 50,000 and 100,000 unless -Dbenchmark.sessions=n,n,... is given
+     * Each open connection takes two file handles in this process (the client end and the server end), so the
+     * open file limit has to be more than twice the number of games, and loopback has about 28,000 client ports
+     * Needs the word lists in src/main/java so it has to be run from the project folder
+     */
+    static void server() {
+        WordLists lists = WordLists.get();
+        WordDictionary dictionary = lists.dictionary();
+        int starting = 256;
+        int guesses = 3;
+        String sessions = System.getProperty("benchmark.sessions", "10000,50000,100000");
+        System.out.println("server guesses over loopback with every game waiting at once ("
+                + (GameServer.hasVirtualThreads() ? "virtual threads" : "thread pool") + ", microseconds)");
+        System.out.printf("%8s %10s %10s %10s %10s %14s%n", "games", "open", "p50", "p99", "max", "guesses/sec");
+        for (String size : sessions.split(",")) {
+            int games = Integer.parseInt(size.trim());
+            // A new client for each size so connections from the last size aren't reused
+            HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            GameServer server = new GameServer(lists, 0);
+            server.start();
+            URI base = URI.create("http://127.0.0.1:" + server.port() + GameServer.PATH);
+            LongAdder failures = new LongAdder();
+
+            // Starts every game before any guesses are sent, a few at a time since this part isn't measured
+            Semaphore permits = new Semaphore(starting);
+            long[] ids = new long[games];
+            for (int i = 0; i < games; i++) {
+                int game = i;
+                permits.acquireUninterruptibly();
+                http.sendAsync(HttpRequest.newBuilder(base).POST(HttpRequest.BodyPublishers.noBody()).timeout(Duration.ofSeconds(60)).build(),
+                        HttpResponse.BodyHandlers.ofString()).whenComplete((response, error) -> {
+                            if (error == null && response.statusCode() == 201) {
+                                ids[game] = GameClient.field(response.body(), "id");
+                            } else {
+                                failures.increment();
+                            }
+                            permits.release();
+                        });
+            }
+            permits.acquireUninterruptibly(starting);
+
+            Metrics.LatencyHistogram histogram = new Metrics.LatencyHistogram();
+            AtomicInteger open = new AtomicInteger();
+            AtomicInteger mostOpen = new AtomicInteger();
+            Random rand = new Random(SEED);
+            long start = System.nanoTime();
+            for (int round = 0; round < guesses; round++) {
+                Semaphore finished = new Semaphore(0);
+                for (int game = 0; game < games; game++) {
+                    String word = WordDictionary.unpack(dictionary.get(rand.nextInt(dictionary.size())));
+                    HttpRequest request = HttpRequest.newBuilder(base.resolve(GameServer.PATH + "/" + ids[game] + "/guess"))
+                            .POST(HttpRequest.BodyPublishers.ofString(word)).timeout(Duration.ofSeconds(60)).build();
+                    mostOpen.accumulateAndGet(open.incrementAndGet(), Math::max);
+                    long sent = System.nanoTime();
+                    http.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, error) -> {
+                        histogram.record(System.nanoTime() - sent);
+                        open.decrementAndGet();
+                        if (error != null || response.statusCode() != 200) {
+                            failures.increment();
+                        }
+                        finished.release();
+                    });
+                }
+                finished.acquireUninterruptibly(games);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%8d %10d %10.1f %10.1f %10.1f %14.0f%s%n", server.gameCount(), mostOpen.get(),
+                    histogram.percentile(50) / 1e3, histogram.percentile(99) / 1e3, histogram.max() / 1e3,
+                    histogram.count() / seconds, failures.sum() > 0 ? "  (" + failures.sum() + " failed)" : "");
+            server.stop();
+        }
+    }
+
+    /**
+     * Operation being timed, given the number of the round
+     */
+    interface Operation {
+        /**
+         * Runs the operation once
+         *
+         * @param round the number of the round
+         * @return long any result so the work isn't removed
+         */
+        long run(int round);
+    }
+
+    /**
+     * Runs an operation a number of times after warming up and returns the average time
+     *
+     * @param rounds how many times to run it
+     * @param operation the operation
+     * @return double average nanoseconds per round
+     */
+    static double time(int rounds, Operation operation) {
+        long result = 0;
+        for (int i = 0; i < rounds / 2; i++) {
+            result += operation.run(i);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            result += operation.run(i);
+        }
+        long elapsed = System.nanoTime() - start;
+        sink += result;
+        return (double) elapsed / rounds;
+    }
+
+    /**
+     * Makes a random 5 letter upper case word
+     *
+     * @param rand the random number generator
+     * @return char[] the letters of the word
+     */
+    static char[] randomWord(Random rand) {
+        char[] word = new char[5];
+        for (int i = 0; i < word.length; i++) {
+            word[i] = (char) ('A' + rand.nextInt(26));
+        }
+        return word;
+    }
+
+    /**
+     * Checks if a list of arguments has a name
+     *
+     * @param args the arguments
+     * @param name the name to look for
+     * @return boolean true if it was found
+     */
+    static boolean contains(String[] args, String name) {
+        for (String arg : args) {
+            if (arg.equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
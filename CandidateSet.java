@@ -0,0 +1,208 @@
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * The answers that still match every guess made so far, stored as one bit per word in wordleWords.txt
+ * Each guess only checks the words that are still possible, so earlier guesses never have to be checked again
+ */
+public final class CandidateSet {
+
+    /**
+     * Every packed answer in the order of wordleWords.txt
+     */
+    private final IntBuffer answers;
+    /**
+     * One bit for every answer, set if the answer is still possible
+     */
+    private final long[] bits;
+    /**
+     * Number of bits that are set
+     */
+    private int count;
+    /**
+     * Number of answers that got each score, only made once an adversarial game needs it
+     */
+    private int[] buckets;
+    /**
+     * Score of every answer from the last call to keepLargestBucket, only made once it is needed
+     */
+    private byte[] scores;
+
+    /**
+     * Makes a set where every answer is still possible
+     *
+     * @param answers every packed answer
+     */
+    public CandidateSet(IntBuffer answers) {
+        this.answers = answers;
+        this.bits = new long[(answers.limit() + 63) >>> 6];
+        reset();
+    }
+
+    /**
+     * Makes a copy of another set that can be changed without changing the other set
+     *
+     * @param other the set to copy
+     */
+    public CandidateSet(CandidateSet other) {
+        this.answers = other.answers;
+        this.bits = other.bits.clone();
+        this.count = other.count;
+    }
+
+    /**
+     * Makes every answer possible again so the set can be used for a new game
+     */
+    public void reset() {
+        int size = answers.limit();
+        Arrays.fill(bits, -1L);
+        // Clears the bits past the last answer
+        if ((size & 63) != 0) {
+            bits[bits.length - 1] = (1L << (size & 63)) - 1;
+        }
+        count = size;
+    }
+
+    /**
+     * Removes every answer that would not have given this score for this guess
+     *
+     * @param guess the packed guess
+     * @param feedback the score the guess got from 0 to 242
+     * @return int the number of answers still possible
+     */
+    public int apply(int guess, int feedback) {
+        int remaining = 0;
+        for (int word = 0; word < bits.length; word++) {
+            long set = bits[word];
+            long keep = set;
+            // Only looks at the answers that are still possible
+            while (set != 0) {
+                int bit = Long.numberOfTrailingZeros(set);
+                set &= set - 1;
+                if (Scorer.score(guess, answers.get((word << 6) | bit)) != feedback) {
+                    keep &= ~(1L << bit);
+                }
+            }
+            bits[word] = keep;
+            remaining += Long.bitCount(keep);
+        }
+        count = remaining;
+        return remaining;
+    }
+
+    /**
+     * Picks the score for a guess that keeps the most answers possible and removes every other answer
+     * This is how an adversarial game answers a guess, so the player learns as little as possible
+     * Ties go to the lowest score so the same guess over the same answers always gets the same score
+     *
+     * @param guess the packed guess
+     * @return int the score that was picked from 0 to 242
+     */
+    public int keepLargestBucket(int guess) {
+        if (buckets == null) {
+            buckets = new int[Scorer.PATTERNS];
+            scores = new byte[answers.limit()];
+        }
+        Arrays.fill(buckets, 0);
+        // Scores every possible answer once and remembers the score so it doesn't have to be worked out again
+        for (int word = 0; word < bits.length; word++) {
+            for (long set = bits[word]; set != 0; set &= set - 1) {
+                int index = (word << 6) | Long.numberOfTrailingZeros(set);
+                int score = Scorer.score(guess, answers.get(index));
+                scores[index] = (byte) score;
+                buckets[score]++;
+            }
+        }
+        int best = 0;
+        for (int score = 1; score < Scorer.PATTERNS; score++) {
+            if (buckets[score] > buckets[best]) {
+                best = score;
+            }
+        }
+
+        // Keeps only the answers in the largest bucket
+        for (int word = 0; word < bits.length; word++) {
+            long keep = bits[word];
+            for (long set = keep; set != 0; set &= set - 1) {
+                int bit = Long.numberOfTrailingZeros(set);
+                if ((scores[(word << 6) | bit] & 0xFF) != best) {
+                    keep &= ~(1L << bit);
+                }
+            }
+            bits[word] = keep;
+        }
+        count = buckets[best];
+        return best;
+    }
+
+    /**
+     * Returns how many answers are still possible
+     *
+     * @return int the number of answers
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Checks if an answer is still possible
+     *
+     * @param index position of the answer in wordleWords.txt
+     * @return boolean true if it is still possible
+     */
+    public boolean contains(int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Returns the position of the next answer that is still possible
+     *
+     * @param from position to start looking from
+     * @return int the position of the answer or -1 if there are no more
+     */
+    public int next(int from) {
+        int word = from >>> 6;
+        if (word >= bits.length) {
+            return -1;
+        }
+        long set = bits[word] & (-1L << from);
+        while (true) {
+            if (set != 0) {
+                return (word << 6) | Long.numberOfTrailingZeros(set);
+            }
+            if (++word >= bits.length) {
+                return -1;
+            }
+            set = bits[word];
+        }
+    }
+
+    /**
+     * Works out a 64 bit hash of which answers are still possible
+     * Two sets with the same answers always get the same hash, even in different runs of the program,
+     * so it can be used to find the hint for a set that has been seen before
+     *
+     * @return long the hash
+     */
+    public long fingerprint() {
+        long hash = 0xcbf29ce484222325L;
+        for (long word : bits) {
+            hash = (hash ^ word) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Returns every answer that is still possible
+     *
+     * @return int[] the packed answers in the order of wordleWords.txt
+     */
+    public int[] toArray() {
+        int[] possible = new int[count];
+        int i = 0;
+        for (int index = next(0); index >= 0; index = next(index + 1)) {
+            possible[i++] = answers.get(index);
+        }
+        return possible;
+    }
+}
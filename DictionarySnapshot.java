@@ -0,0 +1,181 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Binary copy of the word lists that can be mapped into memory and used straight away
+ * The file starts with a header followed by the sorted packed english words and then the packed wordle words
+ *
+ * Header layout (all big endian):
+ * int magic, int version, int number of english words, int number of wordle words, long CRC32 of the words
+ *
+ * Run this class to build the file ahead of time, otherwise the game builds it the first time it runs
+ */
+public final class DictionarySnapshot {
+
+    /**
+     * File that holds the snapshot, next to the text files it is made from
+     */
+    static final Path FILE = WordLists.DIRECTORY.resolve("words.bin");
+
+    /**
+     * Number at the start of every snapshot, the letters WRDL
+     */
+    static final int MAGIC = 0x5752444C;
+    /**
+     * Version of the layout, changed whenever the layout changes
+     */
+    static final int VERSION = 1;
+    /**
+     * Size of the header in bytes
+     */
+    static final int HEADER_SIZE = 24;
+
+    /**
+     * Sorted packed english words, read straight from the mapped file
+     */
+    final IntBuffer englishWords;
+    /**
+     * Packed wordle words in the order of the text file, read straight from the mapped file
+     */
+    final IntBuffer wordleWords;
+
+    /**
+     * Makes a snapshot from the two parts of the file
+     *
+     * @param englishWords sorted packed english words
+     * @param wordleWords packed wordle words
+     */
+    private DictionarySnapshot(IntBuffer englishWords, IntBuffer wordleWords) {
+        this.englishWords = englishWords;
+        this.wordleWords = wordleWords;
+    }
+
+    /**
+     * Builds the snapshot from the text files
+     *
+     * @param args not used
+     */
+    public static void main(String[] args) {
+        long start = System.nanoTime();
+        WordDictionary dictionary = WordDictionary.of(WordLists.readWords(WordLists.ENGLISH_FILE, 5));
+        int[] answers = WordLists.packAll(WordLists.readWords(WordLists.WORDLE_FILE, 0));
+        write(FILE, dictionary, answers);
+        System.out.printf("Wrote %s in %.1f ms%n", FILE, (System.nanoTime() - start) / 1e6);
+    }
+
+    /**
+     * Checks if the snapshot exists and is at least as new as both text files
+     *
+     * @param file the snapshot
+     * @param sources the text files it is made from
+     * @return boolean true if the snapshot can be used
+     * @throws UncheckedIOException if one of the text files is missing
+     */
+    static boolean isFresh(Path file, Path... sources) {
+        try {
+            if (!Files.isRegularFile(file)) {
+                return false;
+            }
+            long built = Files.getLastModifiedTime(file).toMillis();
+            for (Path source : sources) {
+                if (Files.getLastModifiedTime(source).toMillis() > built) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Couldn't check the word list files", e);
+        }
+    }
+
+    /**
+     * Maps a snapshot into memory and checks that it is valid
+     *
+     * @param file the snapshot
+     * @return DictionarySnapshot the snapshot or null if the file is the wrong version or is damaged
+     * @throws IOException if the file couldn't be read
+     */
+    static DictionarySnapshot map(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                return null;
+            }
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            return null;
+        }
+        int englishCount = buffer.getInt(8);
+        int wordleCount = buffer.getInt(12);
+        long checksum = buffer.getLong(16);
+        if (englishCount < 0 || wordleCount < 0
+                || buffer.capacity() != HEADER_SIZE + 4L * (englishCount + (long) wordleCount)) {
+            return null;
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(HEADER_SIZE, buffer.capacity() - HEADER_SIZE));
+        if (crc.getValue() != checksum) {
+            return null;
+        }
+
+        IntBuffer words = buffer.slice(HEADER_SIZE, buffer.capacity() - HEADER_SIZE).asIntBuffer();
+        IntBuffer englishWords = words.slice(0, englishCount);
+        IntBuffer wordleWords = words.slice(englishCount, wordleCount);
+        return new DictionarySnapshot(englishWords, wordleWords);
+    }
+
+    /**
+     * Writes a snapshot, a temporary file is used so a half written snapshot is never read
+     *
+     * @param file the snapshot
+     * @param dictionary the english words
+     * @param answers the packed wordle words
+     * @throws UncheckedIOException if the file couldn't be written
+     */
+    static void write(Path file, WordDictionary dictionary, int[] answers) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + 4 * (dictionary.size() + answers.length));
+        buffer.position(HEADER_SIZE);
+        for (int i = 0; i < dictionary.size(); i++) {
+            buffer.putInt(dictionary.get(i));
+        }
+        for (int answer : answers) {
+            buffer.putInt(answer);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), HEADER_SIZE, buffer.capacity() - HEADER_SIZE);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, dictionary.size());
+        buffer.putInt(12, answers.length);
+        buffer.putLong(16, crc.getValue());
+        buffer.rewind();
+
+        try {
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Couldn't write the word list snapshot " + file.toAbsolutePath(), e);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+
+/**
+ * The score of every english word guessed against every wordle word, worked out once and saved to a file
+ * The file is mapped into memory so the scores live outside of the Java heap and every program that
+ * opens the same file shares one copy of it
+ *
+ * Layout: int magic, int version, int number of guesses, int number of answers, long fingerprint of the
+ * word lists, then one byte per guess and answer with the guesses in alphabetical order and the answers
+ * in the order of wordleWords.txt
+ */
+public final class FeedbackMatrix {
+
+    /**
+     * File that holds the scores, next to the word lists
+     */
+    static final Path FILE = WordLists.DIRECTORY.resolve("feedback.bin");
+
+    /**
+     * Number at the start of every matrix file, the letters FDBK
+     */
+    static final int MAGIC = 0x4644424B;
+    /**
+     * Version of the layout
+     */
+    static final int VERSION = 1;
+    /**
+     * Size of the header in bytes
+     */
+    static final int HEADER_SIZE = 24;
+
+    /**
+     * The mapped file
+     */
+    private final MappedByteBuffer buffer;
+    /**
+     * Number of guesses, one row each
+     */
+    private final int guessCount;
+    /**
+     * Number of answers, one byte each in every row
+     */
+    private final int answerCount;
+
+    /**
+     * Makes a matrix from a mapped file whose header has been checked
+     *
+     * @param buffer the mapped file
+     * @param guessCount number of guesses
+     * @param answerCount number of answers
+     */
+    private FeedbackMatrix(MappedByteBuffer buffer, int guessCount, int answerCount) {
+        this.buffer = buffer;
+        this.guessCount = guessCount;
+        this.answerCount = answerCount;
+    }
+
+    /**
+     * Builds the matrix file ahead of time
+     *
+     * @param args not used
+     */
+    public static void main(String[] args) {
+        WordLists lists = WordLists.get();
+        long start = System.nanoTime();
+        build(FILE, lists);
+        System.out.printf("Built %s (%d bytes) in %.1f ms%n", FILE, size(lists), (System.nanoTime() - start) / 1e6);
+    }
+
+    /**
+     * Opens the matrix file for the word lists, building it first if it is missing or out of date
+     *
+     * @param lists the word lists
+     * @return FeedbackMatrix the matrix
+     * @throws UncheckedIOException if the file couldn't be read or written
+     */
+    public static FeedbackMatrix open(WordLists lists) {
+        return open(FILE, lists);
+    }
+
+    /**
+     * Opens a matrix file for the word lists, building it first if it is missing or out of date
+     *
+     * @param file the matrix file
+     * @param lists the word lists
+     * @return FeedbackMatrix the matrix
+     * @throws UncheckedIOException if the file couldn't be read or written
+     */
+    static synchronized FeedbackMatrix open(Path file, WordLists lists) {
+        try {
+            FeedbackMatrix matrix = map(file, lists);
+            if (matrix == null) {
+                build(file, lists);
+                matrix = map(file, lists);
+            }
+            if (matrix == null) {
+                throw new IllegalStateException(file + " was built but can't be read back");
+            }
+            return matrix;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Couldn't open the feedback matrix " + file.toAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Maps a matrix file if it was built from the same word lists
+     *
+     * @param file the matrix file
+     * @param lists the word lists
+     * @return FeedbackMatrix the matrix or null if the file is missing or out of date
+     * @throws IOException if the file couldn't be read
+     */
+    private static FeedbackMatrix map(Path file, WordLists lists) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() != size(lists)) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                    || buffer.getInt(8) != lists.dictionary().size() || buffer.getInt(12) != lists.answerCount()
+                    || buffer.getLong(16) != lists.fingerprint()) {
+                return null;
+            }
+            return new FeedbackMatrix(buffer, lists.dictionary().size(), lists.answerCount());
+        }
+    }
+
+    /**
+     * Scores every guess against every answer on every core and writes the matrix file
+     * The scores are written into a temporary mapped file which is then moved into place
+     *
+     * @param file the matrix file
+     * @param lists the word lists
+     * @throws UncheckedIOException if the file couldn't be written
+     */
+    static void build(Path file, WordLists lists) {
+        WordDictionary guesses = lists.dictionary();
+        int answerCount = lists.answerCount();
+        int[] answers = new int[answerCount];
+        for (int i = 0; i < answerCount; i++) {
+            answers[i] = lists.answer(i);
+        }
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size(lists));
+                // Every guess writes its own row so the rows can be filled in at the same time
+                IntStream.range(0, guesses.size()).parallel().forEach(g -> {
+                    int guess = guesses.get(g);
+                    int row = HEADER_SIZE + g * answerCount;
+                    for (int a = 0; a < answerCount; a++) {
+                        buffer.put(row + a, (byte) Scorer.score(guess, answers[a]));
+                    }
+                });
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putInt(8, guesses.size());
+                buffer.putInt(12, answerCount);
+                buffer.putLong(16, lists.fingerprint());
+                buffer.force();
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Couldn't build the feedback matrix " + file.toAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Returns the size of the matrix file for some word lists
+     *
+     * @param lists the word lists
+     * @return long the size in bytes
+     * @throws IllegalStateException if the matrix is too big to map
+     */
+    static long size(WordLists lists) {
+        long size = HEADER_SIZE + (long) lists.dictionary().size() * lists.answerCount();
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("The word lists are too big for one feedback matrix");
+        }
+        return size;
+    }
+
+    /**
+     * Returns the score of a guess against an answer
+     *
+     * @param guessIndex position of the guess in the dictionary
+     * @param answerIndex position of the answer in wordleWords.txt
+     * @return int the score from 0 to 242
+     */
+    public int feedback(int guessIndex, int answerIndex) {
+        return buffer.get(HEADER_SIZE + guessIndex * answerCount + answerIndex) & 0xFF;
+    }
+
+    /**
+     * Returns the number of guesses in the matrix
+     *
+     * @return int the number of guesses
+     */
+    public int guessCount() {
+        return guessCount;
+    }
+
+    /**
+     * Returns the number of answers in the matrix
+     *
+     * @return int the number of answers
+     */
+    public int answerCount() {
+        return answerCount;
+    }
+}
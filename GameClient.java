@@ -0,0 +1,140 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Plays a game on a GameServer instead of on this computer
+ * The game screen uses this when it is run with -Dwordle.server=http://localhost:8080
+ * The server keeps the word so the client only finds it out when the game is lost
+ */
+public final class GameClient {
+
+    /**
+     * How long to wait for the server before giving up
+     */
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    /**
+     * Sends the requests, connections are kept open between requests
+     */
+    private final HttpClient http;
+    /**
+     * Address of the server, for example http://localhost:8080
+     */
+    private final URI server;
+    /**
+     * Id of the game on the server, or -1 before the first game
+     */
+    private long id = -1;
+    /**
+     * The word of the game once the server has said it, otherwise null
+     */
+    private String answer;
+
+    /**
+     * Makes a client for a server
+     *
+     * @param server address of the server, for example http://localhost:8080
+     */
+    public GameClient(URI server) {
+        this.server = server;
+        this.http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(TIMEOUT).build();
+    }
+
+    /**
+     * Ends the last game on the server and starts a new one
+     *
+     * @throws UncheckedIOException if the server couldn't be reached
+     */
+    public void newGame() {
+        if (id >= 0) {
+            send(HttpRequest.newBuilder(uri("/" + id)).DELETE());
+        }
+        String body = send(HttpRequest.newBuilder(uri("")).POST(HttpRequest.BodyPublishers.noBody()));
+        id = field(body, "id");
+        answer = null;
+    }
+
+    /**
+     * Sends a guess to the server
+     *
+     * @param guess the packed guess
+     * @return int the colours of the squares from 0 to 242, or -1 if the server didn't accept the guess
+     * @throws UncheckedIOException if the server couldn't be reached
+     */
+    public int guess(int guess) {
+        String body = send(HttpRequest.newBuilder(uri("/" + id + "/guess"))
+                .POST(HttpRequest.BodyPublishers.ofString(WordDictionary.unpack(guess))));
+        int start = body.indexOf("\"answer\":\"");
+        if (start >= 0) {
+            answer = body.substring(start + 10, start + 10 + GameSession.COLUMNS);
+        }
+        return body.contains("\"ACCEPTED\"") ? (int) field(body, "feedback") : -1;
+    }
+
+    /**
+     * Returns the word of the game
+     *
+     * @return String the word or null if the game hasn't been lost yet
+     */
+    public String answer() {
+        return answer;
+    }
+
+    /**
+     * Makes the address of an endpoint
+     *
+     * @param path the part after /games
+     * @return URI the address
+     */
+    private URI uri(String path) {
+        return server.resolve(GameServer.PATH + path);
+    }
+
+    /**
+     * Sends a request and returns the body of the response
+     *
+     * @param request the request
+     * @return String the body
+     * @throws UncheckedIOException if the server couldn't be reached or answered with an error
+     */
+    private String send(HttpRequest.Builder request) {
+        try {
+            HttpResponse<String> response = http.send(request.timeout(TIMEOUT).build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() >= 400) {
+                throw new IOException("The server answered " + response.statusCode() + " " + response.body());
+            }
+            return response.body();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Couldn't reach the game server at " + server, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the game server", e);
+        }
+    }
+
+    /**
+     * Reads a number from a JSON object sent by the server
+     *
+     * @param json the JSON object
+     * @param name the name of the number
+     * @return long the number
+     * @throws IllegalStateException if the number isn't there
+     */
+    static long field(String json, String name) {
+        int start = json.indexOf("\"" + name + "\":");
+        if (start < 0) {
+            throw new IllegalStateException("The server didn't send " + name + ": " + json);
+        }
+        start += name.length() + 3;
+        int end = start;
+        while (end < json.length() && (json.charAt(end) == '-' || Character.isDigit(json.charAt(end)))) {
+            end++;
+        }
+        return Long.parseLong(json.substring(start, end));
+    }
+}
@@ -0,0 +1,389 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Lets several players play on one computer against the same word of the day over HTTP
+ * Every game is a GameSession so the server follows exactly the same rules as the game screen
+ * Each request is handled on its own virtual thread when Java has them, otherwise on a small pool of threads
+ * The project is built for Java 17 so the pool is what normally runs: virtual threads are only used when the
+ * server is started on Java 21 or later
+ * Benchmark server sends a guess for every game at once, it has only been run up to 8,000 games waiting at the
+ * same time (on Java 17 with one core and a limit of 20,000 open files, about 4.4 s p99), so 10,000, 50,000 and
+ * 100,000 players at the same time have not been measured
+ * A game that hasn't been used for IDLE_TIMEOUT is ended so games that are never deleted don't use up memory
+ *
+ * POST /games starts a game and returns its id
+ * POST /games/{id}/guess with a 5 letter word as the body submits a guess and returns its colours
+ * DELETE /games/{id} ends a game
+ *
+ * Usage: java GameServer [--port number]
+ */
+public final class GameServer {
+
+    /**
+     * Port used when none is given
+     */
+    static final int DEFAULT_PORT = 8080;
+    /**
+     * Path every request starts with
+     */
+    static final String PATH = "/games";
+    /**
+     * Number of connections that can wait to be accepted
+     */
+    private static final int BACKLOG = 4096;
+    /**
+     * How long a game can go without a request before it is ended
+     */
+    static final Duration IDLE_TIMEOUT = Duration.ofMinutes(30);
+    /**
+     * Most time between two looks for games that have been idle too long
+     */
+    static final Duration SWEEP_INTERVAL = Duration.ofMinutes(1);
+
+    static {
+        // The server sends the headers and the body of a response separately, and without this the body waits
+        // for the acknowledgement of the headers which adds 40 ms to every guess
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    /**
+     * The word lists
+     */
+    private final WordLists lists;
+    /**
+     * The HTTP server
+     */
+    private final HttpServer server;
+    /**
+     * Runs every request
+     */
+    private final ExecutorService executor;
+    /**
+     * Every game that hasn't been ended, by id
+     */
+    private final ConcurrentHashMap<Long, Game> games = new ConcurrentHashMap<>();
+    /**
+     * Ends the games that have been idle too long
+     */
+    private final ScheduledExecutorService sweeper;
+    /**
+     * How long a game can go without a request before it is ended, in nanoseconds
+     */
+    private final long idleTimeout;
+    /**
+     * Id of the next game
+     */
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    /**
+     * A game and when it was last used
+     */
+    private static final class Game {
+
+        /**
+         * The game
+         */
+        final GameSession session;
+        /**
+         * Time of the last request for this game in nanoseconds
+         */
+        volatile long lastUsed = System.nanoTime();
+
+        /**
+         * Makes a game that was just used
+         *
+         * @param session the game
+         */
+        Game(GameSession session) {
+            this.session = session;
+        }
+    }
+
+    /**
+     * Makes a server on the loopback address that ends games after IDLE_TIMEOUT, it doesn't accept requests
+     * until start is called
+     *
+     * @param lists the word lists
+     * @param port the port to listen on or 0 for any free port
+     * @throws UncheckedIOException if the port couldn't be opened
+     */
+    GameServer(WordLists lists, int port) {
+        this(lists, port, IDLE_TIMEOUT);
+    }
+
+    /**
+     * Makes a server on the loopback address, it doesn't accept requests until start is called
+     *
+     * @param lists the word lists
+     * @param port the port to listen on or 0 for any free port
+     * @param idleTimeout how long a game can go without a request before it is ended
+     * @throws UncheckedIOException if the port couldn't be opened
+     */
+    GameServer(WordLists lists, int port, Duration idleTimeout) {
+        this.lists = lists;
+        this.idleTimeout = idleTimeout.toNanos();
+        try {
+            this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Couldn't listen on port " + port, e);
+        }
+        this.executor = newExecutor();
+        server.setExecutor(executor);
+        server.createContext(PATH, this::handle);
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs the server from the command line
+     *
+     * @param args the options described at the top of this class
+     */
+    public static void main(String[] args) {
+        int port = DEFAULT_PORT;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (args[i].equals("--port")) {
+                port = Integer.parseInt(args[i + 1]);
+            } else {
+                throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        GameServer server = new GameServer(WordLists.get(), port);
+        server.start();
+        System.out.println("Serving http://localhost:" + server.port() + PATH
+                + (hasVirtualThreads() ? " on virtual threads" : " on a thread pool"));
+    }
+
+    /**
+     * Makes the executor that runs the requests
+     * Virtual threads are only in Java 21 and later so they are looked up by name, and on older versions
+     * (including the Java 17 the project is built for) a pool with a few threads per core is used instead
+     * since no request ever waits on anything
+     *
+     * @return ExecutorService the executor
+     */
+    static ExecutorService newExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 4);
+        }
+    }
+
+    /**
+     * Checks if this version of Java has virtual threads
+     *
+     * @return boolean true if requests run on virtual threads
+     */
+    static boolean hasVirtualThreads() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Picks the word of the day, it is the same for everyone playing on that day
+     *
+     * @param lists the word lists
+     * @param day the day
+     * @return int position of the answer in wordleWords.txt
+     */
+    static int dailyAnswer(WordLists lists, LocalDate day) {
+        return KeyLog.pick(AnswerPicker.dailySeed(day), lists.answerCount());
+    }
+
+    /**
+     * Starts accepting requests and looking for idle games
+     */
+    void start() {
+        server.start();
+        long interval = Math.max(1, Math.min(SWEEP_INTERVAL.toNanos(), idleTimeout));
+        sweeper.scheduleAtFixedRate(() -> sweep(System.nanoTime()), interval, interval, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stops accepting requests and ends every game
+     */
+    void stop() {
+        server.stop(0);
+        executor.shutdown();
+        sweeper.shutdownNow();
+        games.clear();
+    }
+
+    /**
+     * Ends every game that hasn't had a request for longer than the idle timeout
+     *
+     * @param now the time in nanoseconds
+     * @return int the number of games ended
+     */
+    int sweep(long now) {
+        int ended = 0;
+        for (Iterator<Game> games = this.games.values().iterator(); games.hasNext(); ) {
+            if (now - games.next().lastUsed > idleTimeout) {
+                games.remove();
+                ended++;
+            }
+        }
+        return ended;
+    }
+
+    /**
+     * Returns the port the server is listening on
+     *
+     * @return int the port
+     */
+    int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Returns the number of games that haven't been ended
+     *
+     * @return int the number of games
+     */
+    int gameCount() {
+        return games.size();
+    }
+
+    /**
+     * Sends every request to the right endpoint
+     *
+     * @param exchange the request and its response
+     * @throws IOException if the response couldn't be sent
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            // The path is /games, /games/{id} or /games/{id}/guess
+            String[] parts = exchange.getRequestURI().getPath().substring(PATH.length()).split("/");
+            if (parts.length <= 1) {
+                if (method.equals("POST")) {
+                    create(exchange);
+                } else {
+                    send(exchange, 405, "{\"error\":\"Use POST to start a game\"}");
+                }
+                return;
+            }
+
+            Game game = null;
+            long id = -1;
+            try {
+                id = Long.parseLong(parts[1]);
+                game = games.get(id);
+            } catch (NumberFormatException e) {
+                // Falls through to not found
+            }
+            if (game == null) {
+                send(exchange, 404, "{\"error\":\"No game with id " + parts[1] + "\"}");
+            } else if (parts.length == 2 && method.equals("DELETE")) {
+                games.remove(id);
+                send(exchange, 204, "");
+            } else if (parts.length == 3 && parts[2].equals("guess") && method.equals("POST")) {
+                game.lastUsed = System.nanoTime();
+                guess(exchange, game.session);
+            } else {
+                send(exchange, 405, "{\"error\":\"Use POST /games/{id}/guess or DELETE /games/{id}\"}");
+            }
+        }
+    }
+
+    /**
+     * Starts a game against the word of the day
+     *
+     * @param exchange the request and its response
+     * @throws IOException if the response couldn't be sent
+     */
+    private void create(HttpExchange exchange) throws IOException {
+        long id = nextId.getAndIncrement();
+        int answer = lists.answer(dailyAnswer(lists, LocalDate.now()));
+        games.put(id, new Game(new GameSession(lists.dictionary(), answer)));
+        send(exchange, 201, "{\"id\":" + id + ",\"rows\":" + GameSession.ROWS + ",\"columns\":" + GameSession.COLUMNS + "}");
+    }
+
+    /**
+     * Types a word into a game and submits it, the same as typing it and pressing enter on the game screen
+     *
+     * @param exchange the request and its response
+     * @param session the game
+     * @throws IOException if the request couldn't be read or the response couldn't be sent
+     */
+    private void guess(HttpExchange exchange, GameSession session) throws IOException {
+        String word;
+        try (InputStream in = exchange.getRequestBody()) {
+            word = new String(in.readNBytes(16), StandardCharsets.UTF_8).trim();
+        }
+        if (WordDictionary.pack(word) == WordDictionary.INVALID) {
+            send(exchange, 400, "{\"error\":\"A guess must be 5 letters\"}");
+            return;
+        }
+
+        GuessResult result;
+        String answer = "";
+        // Requests for the same game can arrive on different threads but a session can only be used by one
+        synchronized (session) {
+            // Clears whatever was left in the row by a guess that wasn't accepted
+            while (session.backspace()) {
+                // Keeps removing letters until the row is empty
+            }
+            for (int i = 0; i < word.length(); i++) {
+                session.type(word.charAt(i));
+            }
+            result = session.submit();
+            if (result.isLoss()) {
+                answer = ",\"answer\":\"" + WordDictionary.unpack(session.answer()) + "\"";
+            }
+        }
+        String reason = result.isAccepted() ? "" : ",\"reason\":\"" + result.reason() + "\"";
+        send(exchange, 200, "{\"outcome\":\"" + result.outcome() + "\",\"feedback\":" + result.feedback()
+                + ",\"row\":" + result.row() + ",\"won\":" + result.isWin() + ",\"lost\":" + result.isLoss() + answer
+                + reason + "}");
+    }
+
+    /**
+     * Sends a JSON response
+     *
+     * @param exchange the request and its response
+     * @param status the HTTP status code
+     * @param body the JSON to send, empty for no body
+     * @throws IOException if the response couldn't be sent
+     */
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
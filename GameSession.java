@@ -0,0 +1,561 @@
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * One game of Wordle without any of the screen
+ * Keeps the letters typed, the guesses made and whether the game is over, and is driven by
+ * type, backspace and submit the same way the keyboard drives the game screen
+ * A session is meant to be used by one thread at a time but many sessions can run at once
+ * A remote session doesn't know the answer, its guesses are scored by a GameServer and added with accept
+ * An adversarial session doesn't pick an answer at all, it scores every guess so that as many answers as
+ * possible are still left and the answer is only decided when the game ends
+ */
+public final class GameSession {
+
+    /**
+     * Number of guesses the player gets
+     */
+    public static final int ROWS = 6;
+    /**
+     * Number of letters in each guess
+     */
+    public static final int COLUMNS = WordDictionary.WORD_LENGTH;
+    /**
+     * Size of a snapshot in bytes
+     */
+    public static final int SNAPSHOT_SIZE = 32;
+
+    /**
+     * Bits used by one packed word in a snapshot
+     */
+    private static final int WORD_BITS = WordDictionary.WORD_LENGTH * WordDictionary.BITS_PER_LETTER;
+    /**
+     * Packed word stored in a snapshot when there is no answer, no real word has a letter of 31
+     */
+    private static final int NO_ANSWER = (1 << WORD_BITS) - 1;
+
+    /**
+     * Dictionary used to check every guess
+     */
+    private final WordDictionary dictionary;
+    /**
+     * The packed word the player has to guess, or WordDictionary.INVALID for a remote session
+     * and for an adversarial session that hasn't ended
+     */
+    private int answer;
+    /**
+     * Answers still left in an adversarial session, null for every other session
+     */
+    private final CandidateSet adversary;
+
+    /**
+     * Packed guesses for every row that has been submitted
+     */
+    private final int[] guesses = new int[ROWS];
+    /**
+     * Colours of the squares for every row that has been submitted
+     */
+    private final int[] feedback = new int[ROWS];
+    /**
+     * Letters typed into the current row, packed the same way as a full word
+     */
+    private int typed;
+
+    /**
+     * The row the player is on
+     */
+    private int row;
+    /**
+     * The column the next letter goes into
+     */
+    private int column;
+    /**
+     * Set to true when the player has guessed the word
+     */
+    private boolean won;
+    /**
+     * The rules of hard mode, null when hard mode is off
+     */
+    private HardMode hardMode;
+
+    /**
+     * Starts a new game
+     *
+     * @param dictionary dictionary used to check every guess
+     * @param answer the packed word the player has to guess
+     */
+    public GameSession(WordDictionary dictionary, int answer) {
+        if (answer == WordDictionary.INVALID) {
+            throw new IllegalArgumentException("The answer must be a 5 letter word");
+        }
+        this.dictionary = dictionary;
+        this.answer = answer;
+        this.adversary = null;
+    }
+
+    /**
+     * Starts a new game whose answer is only known by a server
+     * Guesses have to be scored by the server and added with accept instead of submit
+     *
+     * @param dictionary dictionary used to check every guess
+     * @return GameSession the new game
+     */
+    public static GameSession remote(WordDictionary dictionary) {
+        return new GameSession(dictionary);
+    }
+
+    /**
+     * Starts a new adversarial game where every guess gets the score that leaves the most answers
+     *
+     * @param dictionary dictionary used to check every guess
+     * @param answers every packed word that can be the answer
+     * @return GameSession the new game
+     */
+    public static GameSession adversarial(WordDictionary dictionary, IntBuffer answers) {
+        return new GameSession(dictionary, new CandidateSet(answers));
+    }
+
+    /**
+     * Starts a new remote game
+     *
+     * @param dictionary dictionary used to check every guess
+     */
+    private GameSession(WordDictionary dictionary) {
+        this.dictionary = dictionary;
+        this.answer = WordDictionary.INVALID;
+        this.adversary = null;
+    }
+
+    /**
+     * Starts a new adversarial game
+     *
+     * @param dictionary dictionary used to check every guess
+     * @param adversary every answer that is still possible
+     */
+    private GameSession(WordDictionary dictionary, CandidateSet adversary) {
+        this.dictionary = dictionary;
+        this.answer = WordDictionary.INVALID;
+        this.adversary = adversary;
+    }
+
+    /**
+     * Types a letter into the next square of the current row
+     *
+     * @param c the letter in upper or lower case
+     * @return boolean true if the letter was placed, false if the row is full, the game is over or it isn't a letter
+     */
+    public boolean type(char c) {
+        int letter = WordDictionary.letterIndex(c);
+        if (letter < 0 || column >= COLUMNS || isOver()) {
+            return false;
+        }
+        typed |= letter << shift(column);
+        column++;
+        return true;
+    }
+
+    /**
+     * Removes the last letter typed in the current row
+     *
+     * @return boolean true if a letter was removed
+     */
+    public boolean backspace() {
+        if (column == 0 || isOver()) {
+            return false;
+        }
+        column--;
+        typed &= ~(31 << shift(column));
+        return true;
+    }
+
+    /**
+     * Submits the current row as a guess
+     *
+     * @return GuessResult what happened to the guess
+     */
+    public GuessResult submit() {
+        if (answer == WordDictionary.INVALID && adversary == null) {
+            throw new IllegalStateException("Remote sessions are scored by the server");
+        }
+        GuessResult rejected = check();
+        if (rejected != null) {
+            return rejected;
+        }
+        if (adversary == null) {
+            return place(typed, Scorer.score(typed, answer));
+        }
+
+        int guess = typed;
+        GuessResult result = place(guess, adversary.keepLargestBucket(guess));
+        // The answer is decided once the game is over, it is the guess if it won or any answer that is left
+        if (result.isWin()) {
+            answer = guess;
+        } else if (result.isLoss()) {
+            answer = adversary.toArray()[0];
+        }
+        return result;
+    }
+
+    /**
+     * Adds a guess that was scored by a server to a remote session
+     * The guess has to be the word typed into the current row
+     *
+     * @param guess the packed guess the server scored
+     * @param score the colours of the squares from 0 to 242, or -1 if the server didn't accept the word
+     * @return GuessResult what happened to the guess
+     * @throws IllegalArgumentException if the guess isn't the word typed into the current row
+     */
+    public GuessResult accept(int guess, int score) {
+        GuessResult rejected = check();
+        if (rejected != null) {
+            return rejected;
+        }
+        if (score < 0) {
+            return new GuessResult(GuessResult.Outcome.NOT_A_WORD, typed, -1, -1, false, false);
+        }
+        if (guess != typed || score >= Scorer.PATTERNS) {
+            throw new IllegalArgumentException("The server scored a different guess than the one typed");
+        }
+        return place(guess, score);
+    }
+
+    /**
+     * Returns the word typed into the current row
+     *
+     * @return int the packed word or WordDictionary.INVALID if the row isn't full
+     */
+    public int typedWord() {
+        return column < COLUMNS ? WordDictionary.INVALID : typed;
+    }
+
+    /**
+     * Turns hard mode on or off
+     * Turning it on part way through a game makes every guess already made count
+     *
+     * @param on true to turn hard mode on
+     */
+    public void setHardMode(boolean on) {
+        if (!on) {
+            hardMode = null;
+        } else if (hardMode == null) {
+            hardMode = new HardMode();
+            for (int i = 0; i < row; i++) {
+                hardMode.learn(guesses[i], feedback[i]);
+            }
+        }
+    }
+
+    /**
+     * Checks if hard mode is on
+     *
+     * @return boolean true if every guess has to use the green and purple letters found so far
+     */
+    public boolean isHardMode() {
+        return hardMode != null;
+    }
+
+    /**
+     * Checks if the current row can be submitted without submitting it
+     *
+     * @return GuessResult the reason it can't be submitted or null if it can
+     */
+    public GuessResult check() {
+        if (isOver()) {
+            return GuessResult.GAME_OVER;
+        }
+        if (column < COLUMNS) {
+            return GuessResult.INCOMPLETE;
+        }
+        if (!dictionary.contains(typed)) {
+            return new GuessResult(GuessResult.Outcome.NOT_A_WORD, typed, -1, -1, false, false);
+        }
+        if (hardMode != null) {
+            String reason = hardMode.check(typed);
+            if (reason != null) {
+                return new GuessResult(typed, reason);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Places a scored guess in the current row and moves to the next row
+     *
+     * @param guess the packed guess
+     * @param score the colours of the squares from 0 to 242
+     * @return GuessResult the accepted guess
+     */
+    private GuessResult place(int guess, int score) {
+        int guessRow = row;
+        guesses[row] = guess;
+        feedback[row] = score;
+        if (hardMode != null) {
+            hardMode.learn(guess, score);
+        }
+        won = score == Scorer.ALL_GREEN;
+        row++;
+        column = 0;
+        typed = 0;
+        return new GuessResult(GuessResult.Outcome.ACCEPTED, guess, score, guessRow, won, !won && row >= ROWS);
+    }
+
+    /**
+     * Returns the letter shown in a square
+     *
+     * @param column column of the square
+     * @param row row of the square
+     * @return char the upper case letter or 0 if the square is empty
+     */
+    public char letterAt(int column, int row) {
+        if (row < this.row) {
+            return (char) ('A' + WordDictionary.letterAt(guesses[row], column));
+        }
+        if (row == this.row && column < this.column) {
+            return (char) ('A' + WordDictionary.letterAt(typed, column));
+        }
+        return 0;
+    }
+
+    /**
+     * Returns a guess that has been submitted
+     *
+     * @param row the row of the guess
+     * @return int the packed guess
+     */
+    public int guess(int row) {
+        checkSubmitted(row);
+        return guesses[row];
+    }
+
+    /**
+     * Returns the colours of a guess that has been submitted
+     *
+     * @param row the row of the guess
+     * @return int the score from 0 to 242
+     */
+    public int feedback(int row) {
+        checkSubmitted(row);
+        return feedback[row];
+    }
+
+    /**
+     * Returns the packed word the player has to guess
+     *
+     * @return int the answer or WordDictionary.INVALID for a remote session or an adversarial session that isn't over
+     */
+    public int answer() {
+        return answer;
+    }
+
+    /**
+     * Returns the row the player is on, which is also the number of guesses made
+     *
+     * @return int the row
+     */
+    public int row() {
+        return row;
+    }
+
+    /**
+     * Returns the column the next letter goes into
+     *
+     * @return int the column
+     */
+    public int column() {
+        return column;
+    }
+
+    /**
+     * Checks if the player has guessed the word
+     *
+     * @return boolean true if the game was won
+     */
+    public boolean isWon() {
+        return won;
+    }
+
+    /**
+     * Checks if the game has ended
+     *
+     * @return boolean true if the game was won or every row has been used
+     */
+    public boolean isOver() {
+        return won || row >= ROWS;
+    }
+
+    /**
+     * Writes the whole game into 32 bytes so it can be saved or put away while it isn't being played
+     * The bits are, from the lowest: 6 guesses and the answer and the letters typed (25 bits each),
+     * 6 scores (8 bits each), the row and the column (3 bits each), hard mode and adversarial (1 bit each)
+     * Guesses that haven't been made are 0 and a session without an answer stores 25 bits of 1
+     *
+     * @param out where the snapshot is written, its position moves forward 32 bytes
+     */
+    public void snapshot(ByteBuffer out) {
+        long[] bits = new long[SNAPSHOT_SIZE / 8];
+        int position = 0;
+        for (int i = 0; i < ROWS; i++) {
+            position = put(bits, position, guesses[i], WORD_BITS);
+        }
+        position = put(bits, position, answer == WordDictionary.INVALID ? NO_ANSWER : answer, WORD_BITS);
+        position = put(bits, position, typed, WORD_BITS);
+        for (int i = 0; i < ROWS; i++) {
+            position = put(bits, position, feedback[i], 8);
+        }
+        position = put(bits, position, row, 3);
+        position = put(bits, position, column, 3);
+        position = put(bits, position, hardMode != null ? 1 : 0, 1);
+        put(bits, position, adversary != null ? 1 : 0, 1);
+        for (long word : bits) {
+            out.putLong(word);
+        }
+    }
+
+    /**
+     * Makes a game from a snapshot
+     * Only an adversarial game that isn't over has to look at the answers again to find the ones still possible,
+     * every other game is rebuilt straight from the 32 bytes
+     *
+     * @param dictionary dictionary used to check every guess
+     * @param answers every packed word that can be the answer, only used by an adversarial game
+     * @param in where the snapshot is read from, its position moves forward 32 bytes
+     * @return GameSession the game the snapshot was made from
+     * @throws IllegalArgumentException if the bytes aren't a snapshot of a game
+     */
+    public static GameSession restore(WordDictionary dictionary, IntBuffer answers, ByteBuffer in) {
+        long[] bits = new long[SNAPSHOT_SIZE / 8];
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = in.getLong();
+        }
+        int[] guesses = new int[ROWS];
+        int[] feedback = new int[ROWS];
+        int position = 0;
+        for (int i = 0; i < ROWS; i++) {
+            guesses[i] = (int) get(bits, position, WORD_BITS);
+            position += WORD_BITS;
+        }
+        int answer = (int) get(bits, position, WORD_BITS);
+        int typed = (int) get(bits, position + WORD_BITS, WORD_BITS);
+        position += 2 * WORD_BITS;
+        for (int i = 0; i < ROWS; i++) {
+            feedback[i] = (int) get(bits, position, 8);
+            position += 8;
+        }
+        int row = (int) get(bits, position, 3);
+        int column = (int) get(bits, position + 3, 3);
+        boolean hardMode = get(bits, position + 6, 1) != 0;
+        boolean adversarial = get(bits, position + 7, 1) != 0;
+
+        // Checks the parts that could make the session break later
+        if (row > ROWS || column > COLUMNS) {
+            throw new IllegalArgumentException("Not a snapshot of a game");
+        }
+        boolean won = row > 0 && feedback[row - 1] == Scorer.ALL_GREEN;
+        if (column > 0 && (won || row == ROWS)) {
+            throw new IllegalArgumentException("Not a snapshot of a game");
+        }
+        for (int i = 0; i < ROWS; i++) {
+            if (i < row ? !isWord(guesses[i]) || feedback[i] >= Scorer.PATTERNS : guesses[i] != 0 || feedback[i] != 0) {
+                throw new IllegalArgumentException("Not a snapshot of a game");
+            }
+        }
+        if ((answer != NO_ANSWER && !isWord(answer)) || !isWord(typed)) {
+            throw new IllegalArgumentException("Not a snapshot of a game");
+        }
+
+        GameSession session;
+        if (adversarial) {
+            CandidateSet adversary = new CandidateSet(answers);
+            // The answers still possible are the ones that would have given every score
+            for (int i = 0; i < row; i++) {
+                adversary.apply(guesses[i], feedback[i]);
+            }
+            session = new GameSession(dictionary, adversary);
+        } else {
+            session = new GameSession(dictionary);
+        }
+        session.answer = answer == NO_ANSWER ? WordDictionary.INVALID : answer;
+        System.arraycopy(guesses, 0, session.guesses, 0, ROWS);
+        System.arraycopy(feedback, 0, session.feedback, 0, ROWS);
+        session.typed = typed;
+        session.row = row;
+        session.column = column;
+        session.won = won;
+        session.setHardMode(hardMode);
+        return session;
+    }
+
+    /**
+     * Adds a value to the bits of a snapshot
+     *
+     * @param bits the bits, the lowest bit of the first long is bit 0
+     * @param position the bit the value starts at
+     * @param value the value, it must fit in width bits
+     * @param width number of bits to use
+     * @return int the bit after the value
+     */
+    private static int put(long[] bits, int position, long value, int width) {
+        int index = position >>> 6;
+        int offset = position & 63;
+        bits[index] |= value << offset;
+        // A value that doesn't fit in this long carries on in the next one
+        if (offset + width > 64) {
+            bits[index + 1] |= value >>> (64 - offset);
+        }
+        return position + width;
+    }
+
+    /**
+     * Reads a value from the bits of a snapshot
+     *
+     * @param bits the bits, the lowest bit of the first long is bit 0
+     * @param position the bit the value starts at
+     * @param width number of bits to read
+     * @return long the value
+     */
+    private static long get(long[] bits, int position, int width) {
+        int index = position >>> 6;
+        int offset = position & 63;
+        long value = bits[index] >>> offset;
+        if (offset + width > 64) {
+            value |= bits[index + 1] << (64 - offset);
+        }
+        return value & ((1L << width) - 1);
+    }
+
+    /**
+     * Checks that every letter of a packed word is from A to Z
+     *
+     * @param packed the packed word
+     * @return boolean true if it could be a word
+     */
+    private static boolean isWord(int packed) {
+        for (int i = 0; i < COLUMNS; i++) {
+            if (WordDictionary.letterAt(packed, i) > 25) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Makes sure a row has been submitted
+     *
+     * @param row the row to check
+     */
+    private void checkSubmitted(int row) {
+        if (row < 0 || row >= this.row) {
+            throw new IndexOutOfBoundsException("Row " + row + " hasn't been guessed yet");
+        }
+    }
+
+    /**
+     * Returns how far a letter in a column is shifted in a packed word
+     *
+     * @param column the column
+     * @return int the number of bits
+     */
+    private static int shift(int column) {
+        return (COLUMNS - 1 - column) * WordDictionary.BITS_PER_LETTER;
+    }
+}
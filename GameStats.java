@@ -0,0 +1,484 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Keeps every finished game in a file that is mapped into memory and only ever added to
+ * The totals shown on the stats screen are kept at the start of the file so opening it never has to
+ * read the games again, and once the file gets long the oldest games are dropped while the totals stay
+ *
+ * Layout (all big endian): int magic, int version, two copies of the totals, then two areas of 8192 records,
+ * one 16 byte record per game: long time, int packed answer, byte guesses, byte won, short checksum
+ * Only one area holds games at a time, the totals say which one and how many games were dropped before it
+ *
+ * A game is written and saved before the totals are, and the totals are written to the copy that isn't
+ * the newest one, so if the program stops half way through there is always a whole copy of the totals
+ * and any game that was saved after it is counted again when the file is opened
+ */
+public final class GameStats {
+
+    /**
+     * File that holds the stats, next to the word lists
+     */
+    static final Path FILE = WordLists.DIRECTORY.resolve("stats.bin");
+
+    /**
+     * Number at the start of every stats file, the letters STAT
+     */
+    static final int MAGIC = 0x53544154;
+    /**
+     * Version of the layout
+     */
+    static final int VERSION = 2;
+    /**
+     * Size of one copy of the totals: number of saves, games, wins, streak, best streak, 6 wins by guesses,
+     * long number of games dropped, int area holding the games and a CRC32
+     */
+    static final int TOTALS_SIZE = 60;
+    /**
+     * Size of the header in bytes
+     */
+    static final int HEADER_SIZE = 128;
+    /**
+     * Size of one game in bytes
+     */
+    static final int RECORD_SIZE = 16;
+    /**
+     * The file grows by this many games at a time
+     */
+    static final int GROWTH = 1024;
+    /**
+     * Once the file holds this many games the oldest ones are dropped, it is also the size of each area
+     */
+    static final int COMPACT_AT = 8192;
+    /**
+     * Number of games kept when the file is compacted
+     */
+    static final int KEEP = 1024;
+
+    /**
+     * The stats file
+     */
+    private final Path file;
+    /**
+     * The open file
+     */
+    private FileChannel channel;
+    /**
+     * The mapped file, remapped whenever the file grows
+     */
+    private MappedByteBuffer buffer;
+    /**
+     * Number of games that fit in the mapped part of the file
+     */
+    private int capacity;
+
+    /**
+     * Number of times the totals have been saved, the copy with the higher number is the newest
+     */
+    private int saves;
+    /**
+     * Number of games dropped from the start of the file
+     */
+    private long dropped;
+    /**
+     * Area of the file holding the games, 0 or 1
+     */
+    private int area;
+    /**
+     * Number of games played
+     */
+    private int games;
+    /**
+     * Number of games won
+     */
+    private int wins;
+    /**
+     * Number of games won in a row up to the last game
+     */
+    private int streak;
+    /**
+     * Most games won in a row
+     */
+    private int maxStreak;
+    /**
+     * Number of games won in 1 to 6 guesses, index 0 is 1 guess
+     */
+    private final int[] distribution = new int[GameSession.ROWS];
+
+    /**
+     * Makes the stats for a file that has been opened
+     *
+     * @param file the stats file
+     */
+    private GameStats(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Opens the stats file, making it if it doesn't exist
+     *
+     * @return GameStats the stats
+     * @throws UncheckedIOException if the file couldn't be read or written
+     */
+    public static GameStats open() {
+        return open(FILE);
+    }
+
+    /**
+     * Opens a stats file, making it if it doesn't exist
+     * Only the header and any games saved after the newest totals are read
+     *
+     * @param file the stats file
+     * @return GameStats the stats
+     * @throws UncheckedIOException if the file couldn't be read or written or isn't a stats file
+     */
+    static GameStats open(Path file) {
+        GameStats stats = new GameStats(file);
+        try {
+            stats.map(0);
+            if (stats.buffer.getInt(0) == 0) {
+                // A new file
+                stats.buffer.putInt(0, MAGIC);
+                stats.buffer.putInt(4, VERSION);
+                stats.buffer.force();
+            } else if (stats.buffer.getInt(0) != MAGIC || stats.buffer.getInt(4) != VERSION) {
+                stats.channel.close();
+                throw new IOException("It isn't a stats file");
+            }
+            stats.load();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Couldn't open the stats " + file.toAbsolutePath(), e);
+        }
+        return stats;
+    }
+
+    /**
+     * Opens the file and maps all of it, rounded up to the next 1024 games
+     *
+     * @param records the least number of games the mapped part has to hold
+     * @throws IOException if the file couldn't be opened
+     */
+    private void map(long records) throws IOException {
+        if (channel == null || !channel.isOpen()) {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        records = Math.max(records, (channel.size() - HEADER_SIZE) / RECORD_SIZE);
+        capacity = (int) Math.max(GROWTH, (records + GROWTH - 1) / GROWTH * GROWTH);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * RECORD_SIZE);
+    }
+
+    /**
+     * Reads the newest whole copy of the totals and adds any games that were saved after it
+     */
+    private void load() {
+        int newest = -1;
+        for (int copy = 0; copy < 2; copy++) {
+            if (validTotals(copy) && (newest < 0 || buffer.getInt(totalsOffset(copy)) > buffer.getInt(totalsOffset(newest)))) {
+                newest = copy;
+            }
+        }
+        // Only one copy is written at a time so neither being whole means the file is new
+        if (newest >= 0) {
+            int offset = totalsOffset(newest);
+            saves = buffer.getInt(offset);
+            games = buffer.getInt(offset + 4);
+            wins = buffer.getInt(offset + 8);
+            streak = buffer.getInt(offset + 12);
+            maxStreak = buffer.getInt(offset + 16);
+            for (int i = 0; i < distribution.length; i++) {
+                distribution[i] = buffer.getInt(offset + 20 + 4 * i);
+            }
+            dropped = buffer.getLong(offset + 44);
+            area = buffer.getInt(offset + 52);
+        }
+
+        // Counts the games that were saved after the totals were
+        int start = games;
+        while (games - dropped < COMPACT_AT && mapped((int) (games - dropped)) && validRecord((int) (games - dropped))) {
+            int offset = recordOffset((int) (games - dropped));
+            count(buffer.get(offset + 12), buffer.get(offset + 13) != 0);
+        }
+        if (games != start) {
+            saveTotals();
+        }
+    }
+
+    /**
+     * Saves a finished game and updates the totals
+     *
+     * @param answer the packed word of the game
+     * @param guesses the number of guesses made
+     * @param won true if the game was won
+     * @throws UncheckedIOException if the file couldn't be written
+     */
+    public synchronized void record(int answer, int guesses, boolean won) {
+        if (games - dropped >= COMPACT_AT) {
+            try {
+                compact();
+            } catch (IOException | UncheckedIOException e) {
+                // The totals still count the game below, only the list of the last games misses it
+                System.err.println("Couldn't compact the stats: " + e.getMessage());
+            }
+        }
+        try {
+            if (games - dropped < COMPACT_AT && !mapped((int) (games - dropped))) {
+                map((long) area * COMPACT_AT + games - dropped + 1);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Couldn't grow the stats " + file.toAbsolutePath(), e);
+        }
+
+        // Saves the game before the totals so a crash can never count a game that isn't in the file
+        if (games - dropped < COMPACT_AT) {
+            int offset = recordOffset((int) (games - dropped));
+            buffer.putLong(offset, System.currentTimeMillis());
+            buffer.putInt(offset + 4, answer);
+            buffer.put(offset + 12, (byte) guesses);
+            buffer.put(offset + 13, (byte) (won ? 1 : 0));
+            buffer.putShort(offset + 14, checksum(offset));
+            buffer.force(offset, RECORD_SIZE);
+        }
+
+        count(guesses, won);
+        saveTotals();
+    }
+
+    /**
+     * Adds a game to the totals
+     *
+     * @param guesses the number of guesses made
+     * @param won true if the game was won
+     */
+    private void count(int guesses, boolean won) {
+        games++;
+        if (won) {
+            wins++;
+            streak++;
+            maxStreak = Math.max(maxStreak, streak);
+            distribution[guesses - 1]++;
+        } else {
+            streak = 0;
+        }
+    }
+
+    /**
+     * Writes the totals, the number of games dropped and the area holding the games over the older copy
+     * and saves them
+     */
+    private void saveTotals() {
+        saves++;
+        int offset = totalsOffset(saves & 1);
+        buffer.putInt(offset, saves);
+        buffer.putInt(offset + 4, games);
+        buffer.putInt(offset + 8, wins);
+        buffer.putInt(offset + 12, streak);
+        buffer.putInt(offset + 16, maxStreak);
+        for (int i = 0; i < distribution.length; i++) {
+            buffer.putInt(offset + 20 + 4 * i, distribution[i]);
+        }
+        buffer.putLong(offset + 44, dropped);
+        buffer.putInt(offset + 52, area);
+        buffer.putInt(offset + TOTALS_SIZE - 4, crc(offset, TOTALS_SIZE - 4));
+        buffer.force(offset, TOTALS_SIZE);
+    }
+
+    /**
+     * Drops every game except the newest ones by copying them to the start of the other area of the file
+     * The file isn't replaced because a file that is mapped can't be on some systems (Windows)
+     * The games being kept are copied and the rest of the other area cleared before anything is switched, then
+     * the new number dropped and the new area are saved together in one copy of the totals, so if the program
+     * stops before that copy is whole the older copy still points at the area and games that were there before
+     *
+     * @throws IOException if the file couldn't be grown to hold the other area
+     */
+    private void compact() throws IOException {
+        int records = (int) (games - dropped);
+        int keep = Math.min(KEEP, records);
+        int other = 1 - area;
+        if ((long) (other + 1) * COMPACT_AT > capacity) {
+            map((long) (other + 1) * COMPACT_AT);
+        }
+        int from = recordOffset(records - keep);
+        int to = HEADER_SIZE + other * COMPACT_AT * RECORD_SIZE;
+        for (int i = 0; i < keep * RECORD_SIZE; i++) {
+            buffer.put(to + i, buffer.get(from + i));
+        }
+        // Games left in the other area from before would look like games saved after the totals
+        for (int i = keep * RECORD_SIZE; i < COMPACT_AT * RECORD_SIZE; i++) {
+            buffer.put(to + i, (byte) 0);
+        }
+        buffer.force(to, COMPACT_AT * RECORD_SIZE);
+        dropped = games - keep;
+        area = other;
+        saveTotals();
+    }
+
+    /**
+     * Closes the file, the stats can't be used after this
+     */
+    public synchronized void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Couldn't close the stats: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the number of games played
+     *
+     * @return int the number of games
+     */
+    public synchronized int played() {
+        return games;
+    }
+
+    /**
+     * Returns the number of games won
+     *
+     * @return int the number of wins
+     */
+    public synchronized int wins() {
+        return wins;
+    }
+
+    /**
+     * Returns the percentage of games won
+     *
+     * @return int the percentage from 0 to 100, rounded
+     */
+    public synchronized int winPercent() {
+        return games == 0 ? 0 : Math.round(100f * wins / games);
+    }
+
+    /**
+     * Returns the number of games won in a row up to the last game
+     *
+     * @return int the streak
+     */
+    public synchronized int streak() {
+        return streak;
+    }
+
+    /**
+     * Returns the most games won in a row
+     *
+     * @return int the best streak
+     */
+    public synchronized int maxStreak() {
+        return maxStreak;
+    }
+
+    /**
+     * Returns the number of games won with a number of guesses
+     *
+     * @param guesses the number of guesses from 1 to 6
+     * @return int the number of games
+     */
+    public synchronized int wonIn(int guesses) {
+        return distribution[guesses - 1];
+    }
+
+    /**
+     * Describes the last few games, newest first
+     *
+     * @param count the most games to describe
+     * @return List the games, for example "CRANE in 4" or "CRANE lost"
+     */
+    public synchronized List<String> lastGames(int count) {
+        List<String> last = new ArrayList<>();
+        // Games played while the file couldn't be compacted are only in the totals
+        for (int i = (int) Math.min(games - dropped, COMPACT_AT) - 1; i >= 0 && last.size() < count; i--) {
+            int offset = recordOffset(i);
+            String word = WordDictionary.unpack(buffer.getInt(offset + 4));
+            last.add(buffer.get(offset + 13) != 0 ? word + " in " + buffer.get(offset + 12) : word + " lost");
+        }
+        return last;
+    }
+
+    /**
+     * Returns where a copy of the totals starts
+     *
+     * @param copy 0 or 1
+     * @return int the offset in the file
+     */
+    private static int totalsOffset(int copy) {
+        return 8 + copy * TOTALS_SIZE;
+    }
+
+    /**
+     * Returns where a game starts
+     *
+     * @param record position of the game in the area holding the games
+     * @return int the offset in the file
+     */
+    private int recordOffset(int record) {
+        return HEADER_SIZE + (area * COMPACT_AT + record) * RECORD_SIZE;
+    }
+
+    /**
+     * Checks if a game is in the mapped part of the file
+     *
+     * @param record position of the game in the area holding the games
+     * @return boolean true if it is mapped
+     */
+    private boolean mapped(int record) {
+        return area * COMPACT_AT + record < capacity;
+    }
+
+    /**
+     * Checks if a copy of the totals was written all the way
+     *
+     * @param copy 0 or 1
+     * @return boolean true if its CRC32 matches
+     */
+    private boolean validTotals(int copy) {
+        int offset = totalsOffset(copy);
+        return buffer.getInt(offset) > 0 && buffer.getInt(offset + TOTALS_SIZE - 4) == crc(offset, TOTALS_SIZE - 4);
+    }
+
+    /**
+     * Checks if a game was written all the way
+     *
+     * @param record position of the game in the area holding the games
+     * @return boolean true if it has a valid number of guesses and its checksum matches
+     */
+    private boolean validRecord(int record) {
+        int offset = recordOffset(record);
+        int guesses = buffer.get(offset + 12);
+        return guesses >= 1 && guesses <= GameSession.ROWS && buffer.getShort(offset + 14) == checksum(offset);
+    }
+
+    /**
+     * Works out the checksum of a game from its first 14 bytes
+     *
+     * @param offset where the game starts
+     * @return short the checksum, it is never 0 so an empty record never matches
+     */
+    private short checksum(int offset) {
+        return (short) (crc(offset, RECORD_SIZE - 2) | 0x8000);
+    }
+
+    /**
+     * Works out the CRC32 of part of the file
+     *
+     * @param offset where the part starts
+     * @param length length of the part
+     * @return int the CRC32
+     */
+    private int crc(int offset, int length) {
+        CRC32 crc = new CRC32();
+        ByteBuffer part = buffer.duplicate();
+        part.position(offset).limit(offset + length);
+        crc.update(part);
+        return (int) crc.getValue();
+    }
+}
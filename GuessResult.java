@@ -0,0 +1,211 @@
+/**
+ * What happened when a guess was submitted to a GameSession
+ * Results can't be changed once they are made
+ */
+public final class GuessResult {
+
+    /**
+     * The different things that can happen when a guess is submitted
+     */
+    public enum Outcome {
+        /**
+         * The guess was a real word and has been scored
+         */
+        ACCEPTED,
+        /**
+         * Fewer than 5 letters have been typed
+         */
+        INCOMPLETE,
+        /**
+         * The guess is not in the dictionary
+         */
+        NOT_A_WORD,
+        /**
+         * The guess doesn't use every green and purple letter found so far in hard mode
+         */
+        BREAKS_HARD_MODE,
+        /**
+         * The game has already been won or lost
+         */
+        GAME_OVER
+    }
+
+    /**
+     * Result used for every guess that wasn't 5 letters long
+     */
+    static final GuessResult INCOMPLETE = new GuessResult(Outcome.INCOMPLETE, WordDictionary.INVALID, -1, -1, false, false);
+    /**
+     * Result used for every guess made after the game ended
+     */
+    static final GuessResult GAME_OVER = new GuessResult(Outcome.GAME_OVER, WordDictionary.INVALID, -1, -1, false, false);
+
+    /**
+     * What happened to the guess
+     */
+    private final Outcome outcome;
+    /**
+     * The packed guess
+     */
+    private final int guess;
+    /**
+     * The colours of the squares from 0 to 242, or -1 if the guess wasn't scored
+     */
+    private final int feedback;
+    /**
+     * The row the guess was placed in, or -1 if it wasn't placed
+     */
+    private final int row;
+    /**
+     * True if this guess won the game
+     */
+    private final boolean won;
+    /**
+     * True if this guess used up the last row without winning
+     */
+    private final boolean lost;
+    /**
+     * Why a guess broke the rules of hard mode, null for every other outcome
+     */
+    private final String hardModeReason;
+
+    /**
+     * Makes a result
+     *
+     * @param outcome what happened to the guess
+     * @param guess the packed guess
+     * @param feedback the colours of the squares or -1
+     * @param row the row of the guess or -1
+     * @param won true if the guess won the game
+     * @param lost true if the guess lost the game
+     */
+    GuessResult(Outcome outcome, int guess, int feedback, int row, boolean won, boolean lost) {
+        this(outcome, guess, feedback, row, won, lost, null);
+    }
+
+    /**
+     * Makes a result for a guess that broke the rules of hard mode
+     *
+     * @param guess the packed guess
+     * @param hardModeReason why the guess broke the rules
+     */
+    GuessResult(int guess, String hardModeReason) {
+        this(Outcome.BREAKS_HARD_MODE, guess, -1, -1, false, false, hardModeReason);
+    }
+
+    /**
+     * Makes a result
+     *
+     * @param outcome what happened to the guess
+     * @param guess the packed guess
+     * @param feedback the colours of the squares or -1
+     * @param row the row of the guess or -1
+     * @param won true if the guess won the game
+     * @param lost true if the guess lost the game
+     * @param hardModeReason why the guess broke the rules of hard mode or null
+     */
+    private GuessResult(Outcome outcome, int guess, int feedback, int row, boolean won, boolean lost, String hardModeReason) {
+        this.outcome = outcome;
+        this.guess = guess;
+        this.feedback = feedback;
+        this.row = row;
+        this.won = won;
+        this.lost = lost;
+        this.hardModeReason = hardModeReason;
+    }
+
+    /**
+     * Returns what happened to the guess
+     *
+     * @return Outcome what happened
+     */
+    public Outcome outcome() {
+        return outcome;
+    }
+
+    /**
+     * Checks if the guess was scored
+     *
+     * @return boolean true if the guess was accepted
+     */
+    public boolean isAccepted() {
+        return outcome == Outcome.ACCEPTED;
+    }
+
+    /**
+     * Returns the packed guess
+     *
+     * @return int the guess or WordDictionary.INVALID if it wasn't 5 letters
+     */
+    public int guess() {
+        return guess;
+    }
+
+    /**
+     * Returns the colours of the squares
+     *
+     * @return int the score from 0 to 242 or -1 if the guess wasn't accepted
+     */
+    public int feedback() {
+        return feedback;
+    }
+
+    /**
+     * Returns the row the guess was placed in
+     *
+     * @return int the row or -1 if the guess wasn't accepted
+     */
+    public int row() {
+        return row;
+    }
+
+    /**
+     * Checks if this guess won the game
+     *
+     * @return boolean true if every letter was right
+     */
+    public boolean isWin() {
+        return won;
+    }
+
+    /**
+     * Checks if this guess lost the game
+     *
+     * @return boolean true if it was the last row and it was wrong
+     */
+    public boolean isLoss() {
+        return lost;
+    }
+
+    /**
+     * Explains why a guess wasn't accepted so it can be shown to the player
+     *
+     * @return String the reason or null if the guess was accepted
+     */
+    public String reason() {
+        switch (outcome) {
+            case INCOMPLETE:
+                return "Not enough letters";
+            case NOT_A_WORD:
+                return "Not in the word list";
+            case BREAKS_HARD_MODE:
+                return hardModeReason;
+            case GAME_OVER:
+                return "The game is over";
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Describes the result
+     *
+     * @return String the result as text
+     */
+    @Override
+    public String toString() {
+        if (guess == WordDictionary.INVALID) {
+            return outcome.toString();
+        }
+        return outcome + " " + WordDictionary.unpack(guess) + (isAccepted() ? " " + feedback : "");
+    }
+}
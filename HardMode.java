@@ -0,0 +1,105 @@
+/**
+ * The rules of hard mode: every green letter has to be used in the same square again and every purple
+ * letter has to be used somewhere in every guess after it was found
+ * Everything learnt from the guesses is kept in a few ints and one small array, so checking a guess
+ * only looks at its 5 letters and never depends on how many guesses have been made
+ */
+public final class HardMode {
+
+    /**
+     * Names of the squares used in the reasons
+     */
+    private static final String[] PLACES = {"1st", "2nd", "3rd", "4th", "5th"};
+
+    /**
+     * Green letters packed the same way as a word, squares without a green letter are 0
+     */
+    private int greens;
+    /**
+     * 31 in every square that has a green letter and 0 everywhere else, packed the same way as a word
+     */
+    private int greenMask;
+    /**
+     * Least number of times each letter has to be in a guess, index 0 is A
+     */
+    private final byte[] minCounts = new byte[26];
+    /**
+     * One bit for every letter that has to be in a guess, bit 0 is A
+     */
+    private int requiredLetters;
+
+    /**
+     * Forgets every guess so the rules can be used for a new game
+     */
+    public void reset() {
+        greens = 0;
+        greenMask = 0;
+        for (int letters = requiredLetters; letters != 0; letters &= letters - 1) {
+            minCounts[Integer.numberOfTrailingZeros(letters)] = 0;
+        }
+        requiredLetters = 0;
+    }
+
+    /**
+     * Learns the green and purple letters of a guess that was accepted
+     *
+     * @param guess the packed guess
+     * @param feedback the colours of the squares from 0 to 242
+     */
+    public void learn(int guess, int feedback) {
+        for (int i = 0; i < WordDictionary.WORD_LENGTH; i++) {
+            int color = Scorer.colorAt(feedback, i);
+            if (color == Scorer.GREY) {
+                continue;
+            }
+            int letter = WordDictionary.letterAt(guess, i);
+            if (color == Scorer.GREEN) {
+                int shift = (WordDictionary.WORD_LENGTH - 1 - i) * WordDictionary.BITS_PER_LETTER;
+                greens |= letter << shift;
+                greenMask |= 31 << shift;
+            }
+            // A letter that is green or purple twice has to be in every later guess twice
+            int count = 0;
+            for (int j = 0; j < WordDictionary.WORD_LENGTH; j++) {
+                if (WordDictionary.letterAt(guess, j) == letter && Scorer.colorAt(feedback, j) != Scorer.GREY) {
+                    count++;
+                }
+            }
+            minCounts[letter] = (byte) Math.max(minCounts[letter], count);
+            requiredLetters |= 1 << letter;
+        }
+    }
+
+    /**
+     * Checks if a guess follows the rules
+     *
+     * @param guess the packed guess
+     * @return String why the guess breaks the rules, or null if it follows them
+     */
+    public String check(int guess) {
+        // Every green letter is checked at once since the greens are packed the same way as the guess
+        if (((guess ^ greens) & greenMask) != 0) {
+            for (int i = 0; i < WordDictionary.WORD_LENGTH; i++) {
+                int shift = (WordDictionary.WORD_LENGTH - 1 - i) * WordDictionary.BITS_PER_LETTER;
+                if ((((guess ^ greens) & greenMask) >>> shift & 31) != 0) {
+                    return "The " + PLACES[i] + " letter must be " + (char) ('A' + (greens >>> shift & 31));
+                }
+            }
+        }
+        for (int letters = requiredLetters; letters != 0; letters &= letters - 1) {
+            int letter = Integer.numberOfTrailingZeros(letters);
+            int count = 0;
+            for (int i = 0; i < WordDictionary.WORD_LENGTH; i++) {
+                if (WordDictionary.letterAt(guess, i) == letter) {
+                    count++;
+                }
+            }
+            if (count < minCounts[letter]) {
+                char name = (char) ('A' + letter);
+                return minCounts[letter] == 1 ? "The guess must contain " + name
+                        : "The guess must contain " + minCounts[letter] + " " + name + "s";
+            }
+        }
+        return null;
+    }
+}
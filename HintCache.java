@@ -0,0 +1,373 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Remembers hints so the same answers that are still possible never have to be searched twice
+ * The best first guess and the best second guess after every colouring of it (the opening book) are worked
+ * out once and saved to a small file, so the hints at the start of a game are found straight away
+ * Any other hint is kept in a list of the most recently used hints that drops the oldest one when it is full
+ * Both are looked up by the fingerprint of the answers that are still possible
+ * Building the opening book searches for hundreds of hints on every core, so it is done ahead of time with
+ * java HintCache and the game only reads the file
+ *
+ * Layout of the file: int magic, int version, int depth, int number of entries, long fingerprint of the word
+ * lists, then for each entry long fingerprint of the answers, int packed guess, int 1 if the guess could be
+ * the answer and double entropy
+ */
+public final class HintCache {
+
+    /**
+     * File that holds the opening book, next to the word lists
+     */
+    static final Path FILE = WordLists.DIRECTORY.resolve("openings.bin");
+
+    /**
+     * Number at the start of every opening book, the letters OPEN
+     */
+    static final int MAGIC = 0x4F50454E;
+    /**
+     * Version of the layout
+     */
+    static final int VERSION = 1;
+    /**
+     * Size of the header in bytes
+     */
+    static final int HEADER_SIZE = 24;
+    /**
+     * Size of one entry in bytes
+     */
+    static final int ENTRY_SIZE = 24;
+    /**
+     * Number of guesses the opening book covers, the first guess and the second guess
+     */
+    static final int DEFAULT_DEPTH = 2;
+    /**
+     * Number of hints kept in memory besides the opening book
+     */
+    static final int DEFAULT_CAPACITY = 512;
+
+    /**
+     * Searches for the hints that aren't known yet
+     */
+    private final HintEngine engine;
+    /**
+     * The opening book, empty until it has been read or built
+     */
+    private volatile Map<Long, HintEngine.Hint> book = Collections.emptyMap();
+    /**
+     * The most recently used hints from the oldest to the newest
+     */
+    private final LinkedHashMap<Long, HintEngine.Hint> recent;
+    /**
+     * Number of hints found in the opening book
+     */
+    private int bookHits;
+    /**
+     * Number of hints found in the recently used hints
+     */
+    private int recentHits;
+    /**
+     * Number of hints that had to be searched for
+     */
+    private int misses;
+
+    /**
+     * Makes a cache without an opening book
+     *
+     * @param engine searches for the hints that aren't known yet
+     * @param capacity number of hints kept in memory besides the opening book
+     */
+    public HintCache(HintEngine engine, int capacity) {
+        this.engine = engine;
+        // Access order moves a hint to the end every time it is used so the first one is the least recently used
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+
+            /**
+             * Drops the least recently used hint once there are too many
+             *
+             * @param eldest the least recently used hint
+             * @return boolean true if it should be dropped
+             */
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, HintEngine.Hint> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Builds the opening book file ahead of time
+     *
+     * @param args how many guesses the book should cover, 2 if it is left out
+     */
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+        WordLists lists = WordLists.get();
+        long start = System.nanoTime();
+        Map<Long, HintEngine.Hint> book = build(lists, new HintEngine(lists.dictionary(), ForkJoinPool.commonPool()), depth);
+        write(FILE, lists, depth, book);
+        System.out.printf("Built %s (%d entries, %d bytes) in %.1f ms%n", FILE, book.size(),
+                HEADER_SIZE + book.size() * ENTRY_SIZE, (System.nanoTime() - start) / 1e6);
+    }
+
+    /**
+     * Reads the opening book made ahead of time by main in the background
+     * It is never built here since that would take every core away from the hint being searched for, so
+     * without the file every hint is searched for and cached in memory
+     *
+     * @param lists the word lists
+     * @return CompletableFuture completes once the book is being used or is known to be missing
+     */
+    public CompletableFuture<Void> openBook(WordLists lists) {
+        return CompletableFuture.runAsync(() -> {
+            Map<Long, HintEngine.Hint> read = read(FILE, lists);
+            if (read == null) {
+                System.err.println("No opening book, run java HintCache to make one, hints are searched for");
+            } else {
+                book = read;
+            }
+        });
+    }
+
+    /**
+     * Reads the opening book, building and saving it first if it is missing or out of date
+     * Only used when working out other tables ahead of time, like the difficulty of every answer
+     *
+     * @param lists the word lists
+     * @throws UncheckedIOException if the file couldn't be read or written
+     */
+    void buildBook(WordLists lists) {
+        book = open(FILE, lists, engine);
+    }
+
+    /**
+     * Reads an opening book file, building it first if it is missing or out of date
+     *
+     * @param file the opening book file
+     * @param lists the word lists
+     * @param engine searches for the hints if the book has to be built
+     * @return Map the hint for the fingerprint of every position in the book
+     * @throws UncheckedIOException if the file couldn't be read or written
+     */
+    static synchronized Map<Long, HintEngine.Hint> open(Path file, WordLists lists, HintEngine engine) {
+        Map<Long, HintEngine.Hint> book = read(file, lists);
+        if (book == null) {
+            book = build(lists, engine, DEFAULT_DEPTH);
+            write(file, lists, DEFAULT_DEPTH, book);
+        }
+        return book;
+    }
+
+    /**
+     * Reads an opening book file if it was built from the same word lists
+     * A book of any depth is used, so a deeper one built with main is kept
+     *
+     * @param file the opening book file
+     * @param lists the word lists
+     * @return Map the hint for the fingerprint of every position, or null if the file is missing or out of date
+     * @throws UncheckedIOException if the file couldn't be read
+     */
+    static Map<Long, HintEngine.Hint> read(Path file, WordLists lists) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+            if (buffer.limit() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+            buffer.getInt();
+            int entries = buffer.getInt();
+            if (buffer.getLong() != lists.fingerprint() || buffer.limit() != HEADER_SIZE + entries * ENTRY_SIZE) {
+                return null;
+            }
+            Map<Long, HintEngine.Hint> book = new HashMap<>(entries * 2);
+            for (int i = 0; i < entries; i++) {
+                long key = buffer.getLong();
+                int guess = buffer.getInt();
+                boolean candidate = buffer.getInt() != 0;
+                book.put(key, new HintEngine.Hint(guess, buffer.getDouble(), candidate, 0, 0));
+            }
+            return book;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Couldn't read the opening book " + file.toAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Works out the opening book by searching for the best guess at the start of a game and then after
+     * every colouring the best guess could get, one guess deeper each time
+     *
+     * @param lists the word lists
+     * @param engine searches for the hints
+     * @param depth number of guesses the book covers
+     * @return Map the hint for the fingerprint of every position, in the order they were found
+     */
+    static Map<Long, HintEngine.Hint> build(WordLists lists, HintEngine engine, int depth) {
+        Map<Long, HintEngine.Hint> book = new LinkedHashMap<>();
+        addPosition(book, engine, new CandidateSet(lists.answers()), depth);
+        return book;
+    }
+
+    /**
+     * Searches for the best guess for some possible answers and then for every colouring it could get
+     * Positions with two answers or less are left out because the engine answers those straight away
+     *
+     * @param book where the hints are added
+     * @param engine searches for the hints
+     * @param set the answers that are still possible
+     * @param depth number of guesses still to cover
+     */
+    private static void addPosition(Map<Long, HintEngine.Hint> book, HintEngine engine, CandidateSet set, int depth) {
+        long key = set.fingerprint();
+        if (set.count() <= 2 || book.containsKey(key)) {
+            return;
+        }
+        int[] candidates = set.toArray();
+        HintEngine.Hint hint = engine.suggest(candidates, candidates.length, null).result().join();
+        book.put(key, hint);
+        if (depth <= 1) {
+            return;
+        }
+        for (int feedback = 0; feedback < Scorer.ALL_GREEN; feedback++) {
+            CandidateSet next = new CandidateSet(set);
+            if (next.apply(hint.guess(), feedback) > 0) {
+                addPosition(book, engine, next, depth - 1);
+            }
+        }
+    }
+
+    /**
+     * Writes an opening book file
+     * The entries are written to a temporary file which is then moved into place
+     *
+     * @param file the opening book file
+     * @param lists the word lists the book was built from
+     * @param depth number of guesses the book covers
+     * @param book the hint for the fingerprint of every position
+     * @throws UncheckedIOException if the file couldn't be written
+     */
+    static void write(Path file, WordLists lists, int depth, Map<Long, HintEngine.Hint> book) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + book.size() * ENTRY_SIZE);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(depth).putInt(book.size()).putLong(lists.fingerprint());
+        for (Map.Entry<Long, HintEngine.Hint> entry : book.entrySet()) {
+            HintEngine.Hint hint = entry.getValue();
+            buffer.putLong(entry.getKey()).putInt(hint.guess()).putInt(hint.candidate() ? 1 : 0).putDouble(hint.entropy());
+        }
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.write(temp, buffer.array());
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Couldn't write the opening book " + file.toAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Finds the best guess for the answers that are still possible
+     * A hint that is already known is returned as a search that has finished, otherwise the engine starts
+     * searching and the hint is remembered once the search checks every guess
+     *
+     * @param set the answers that are still possible
+     * @param progress called every time a better hint is found, can be null
+     * @return Search the search, which may have already finished
+     */
+    public HintEngine.Search suggest(CandidateSet set, Consumer<HintEngine.Hint> progress) {
+        long start = System.nanoTime();
+        int[] candidates;
+        // The engine answers straight away when there are two answers or less so those aren't cached
+        if (set.count() <= 2) {
+            candidates = set.toArray();
+            return engine.suggest(candidates, candidates.length, progress);
+        }
+        long key = set.fingerprint();
+        HintEngine.Hint known = lookup(key);
+        if (known != null) {
+            HintEngine.Hint hint = new HintEngine.Hint(known.guess(), known.entropy(), known.candidate(), 0,
+                    System.nanoTime() - start);
+            if (progress != null) {
+                progress.accept(hint);
+            }
+            return HintEngine.done(hint);
+        }
+
+        candidates = set.toArray();
+        HintEngine.Search search = engine.suggest(candidates, candidates.length, progress);
+        // A cancelled search never completes normally so only finished hints are remembered
+        search.result().thenAccept(hint -> remember(key, hint));
+        return search;
+    }
+
+    /**
+     * Looks for a hint in the opening book and then in the recently used hints
+     *
+     * @param key fingerprint of the answers that are still possible
+     * @return Hint the hint or null if it isn't known
+     */
+    synchronized HintEngine.Hint lookup(long key) {
+        HintEngine.Hint hint = book.get(key);
+        if (hint != null) {
+            bookHits++;
+            return hint;
+        }
+        hint = recent.get(key);
+        if (hint != null) {
+            recentHits++;
+            return hint;
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Keeps a hint that was searched for, dropping the least recently used one if there are too many
+     *
+     * @param key fingerprint of the answers that are still possible
+     * @param hint the hint
+     */
+    synchronized void remember(long key, HintEngine.Hint hint) {
+        recent.put(key, hint);
+    }
+
+    /**
+     * Returns the number of positions in the opening book
+     *
+     * @return int the number of positions, 0 until the book has been read
+     */
+    public int bookSize() {
+        return book.size();
+    }
+
+    /**
+     * Returns how many hints were found without searching
+     *
+     * @return double the part of the hints from 0 to 1
+     */
+    public synchronized double hitRate() {
+        int total = bookHits + recentHits + misses;
+        return total == 0 ? 0 : (double) (bookHits + recentHits) / total;
+    }
+
+    /**
+     * Describes how well the cache is doing
+     *
+     * @return String the hits, misses and hit rate
+     */
+    @Override
+    public synchronized String toString() {
+        return String.format("%d book hits, %d recent hits, %d misses (%.1f%% hit rate)",
+                bookHits, recentHits, misses, hitRate() * 100);
+    }
+}
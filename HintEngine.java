@@ -0,0 +1,363 @@
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Suggests the guess that tells the player the most about the answer
+ * Every allowed guess is scored against every answer that is still possible and the guess whose
+ * colours are spread out the most (the highest entropy) wins
+ * The guesses are split into chunks that run on a ForkJoinPool, and the best guess so far is
+ * reported after every chunk so the hint gets better while the search is running
+ */
+public final class HintEngine {
+
+    /**
+     * Number of guesses each task checks before reporting
+     */
+    static final int CHUNK_SIZE = 256;
+
+    /**
+     * Every guess that is allowed
+     */
+    private final WordDictionary guesses;
+    /**
+     * Pool that runs the search
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Makes a hint engine
+     *
+     * @param guesses every guess that is allowed
+     * @param pool pool that runs the search
+     */
+    public HintEngine(WordDictionary guesses, ForkJoinPool pool) {
+        this.guesses = guesses;
+        this.pool = pool;
+    }
+
+    /**
+     * The best guess found by a search
+     */
+    public static final class Hint {
+
+        /**
+         * The packed guess
+         */
+        private final int guess;
+        /**
+         * Expected information from the guess in bits
+         */
+        private final double entropy;
+        /**
+         * True if the guess could be the answer
+         */
+        private final boolean candidate;
+        /**
+         * Number of guesses checked when this hint was found
+         */
+        private final int checked;
+        /**
+         * Time from the start of the search to this hint in nanoseconds
+         */
+        private final long elapsed;
+
+        /**
+         * Makes a hint
+         *
+         * @param guess the packed guess
+         * @param entropy expected information in bits
+         * @param candidate true if the guess could be the answer
+         * @param checked number of guesses checked so far
+         * @param elapsed time since the search started in nanoseconds
+         */
+        Hint(int guess, double entropy, boolean candidate, int checked, long elapsed) {
+            this.guess = guess;
+            this.entropy = entropy;
+            this.candidate = candidate;
+            this.checked = checked;
+            this.elapsed = elapsed;
+        }
+
+        /**
+         * Returns the packed guess
+         *
+         * @return int the guess
+         */
+        public int guess() {
+            return guess;
+        }
+
+        /**
+         * Returns the expected information from the guess
+         *
+         * @return double the entropy in bits
+         */
+        public double entropy() {
+            return entropy;
+        }
+
+        /**
+         * Checks if the guess could be the answer
+         *
+         * @return boolean true if it could be the answer
+         */
+        public boolean candidate() {
+            return candidate;
+        }
+
+        /**
+         * Returns the number of guesses that had been checked when this hint was found
+         *
+         * @return int the number of guesses
+         */
+        public int checked() {
+            return checked;
+        }
+
+        /**
+         * Returns how long the search had been running when this hint was found
+         *
+         * @return long the time in nanoseconds
+         */
+        public long elapsed() {
+            return elapsed;
+        }
+
+        /**
+         * Checks if this hint is better than another one
+         * Higher entropy wins, then guesses that could be the answer, then the alphabetically first guess
+         *
+         * @param other the other hint or null
+         * @return boolean true if this hint is better
+         */
+        boolean beats(Hint other) {
+            if (other == null || entropy > other.entropy) {
+                return true;
+            }
+            if (entropy < other.entropy) {
+                return false;
+            }
+            if (candidate != other.candidate) {
+                return candidate;
+            }
+            return guess < other.guess;
+        }
+
+        /**
+         * Describes the hint
+         *
+         * @return String the hint as text
+         */
+        @Override
+        public String toString() {
+            return String.format("%s (%.2f bits)", WordDictionary.unpack(guess), entropy);
+        }
+    }
+
+    /**
+     * A search that is running, it can be cancelled at any time
+     */
+    public static final class Search {
+
+        /**
+         * Completes with the best hint once every guess has been checked
+         */
+        private final CompletableFuture<Hint> result = new CompletableFuture<>();
+        /**
+         * Set to true when the search should stop
+         */
+        private volatile boolean cancelled;
+        /**
+         * Best hint found so far
+         */
+        private Hint best;
+
+        /**
+         * Stops the search, the result is completed with a CancellationException
+         */
+        public void cancel() {
+            cancelled = true;
+            result.completeExceptionally(new CancellationException("Hint search cancelled"));
+        }
+
+        /**
+         * Checks if the search was cancelled
+         *
+         * @return boolean true if it was cancelled
+         */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * Returns the result of the search
+         *
+         * @return CompletableFuture the best hint once the search is done
+         */
+        public CompletableFuture<Hint> result() {
+            return result;
+        }
+
+        /**
+         * Returns the best hint found so far
+         *
+         * @return Hint the best hint or null if nothing has been checked yet
+         */
+        public synchronized Hint best() {
+            return best;
+        }
+
+        /**
+         * Keeps a hint if it is better than the best one so far
+         *
+         * @param hint the new hint
+         * @return boolean true if it was better
+         */
+        synchronized boolean offer(Hint hint) {
+            if (hint.beats(best)) {
+                best = hint;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Makes a search that has already finished, used when the hint is already known
+     *
+     * @param hint the hint
+     * @return Search a search whose result is the hint
+     */
+    static Search done(Hint hint) {
+        Search search = new Search();
+        search.offer(hint);
+        search.result.complete(hint);
+        return search;
+    }
+
+    /**
+     * Starts looking for the best guess in the background
+     *
+     * @param candidates packed answers that are still possible
+     * @param count how many entries of candidates to use
+     * @param progress called from a pool thread every time a better hint is found, can be null
+     * @return Search the running search
+     */
+    public Search suggest(int[] candidates, int count, Consumer<Hint> progress) {
+        Search search = new Search();
+        long start = System.nanoTime();
+        if (count == 0) {
+            search.result.completeExceptionally(new IllegalArgumentException("There are no possible answers left"));
+            return search;
+        }
+        // With only one or two answers left the best guess is one of them
+        if (count <= 2) {
+            Hint hint = new Hint(candidates[0], count == 2 ? 1 : 0, true, 0, System.nanoTime() - start);
+            search.offer(hint);
+            if (progress != null) {
+                progress.accept(hint);
+            }
+            search.result.complete(hint);
+            return search;
+        }
+
+        // Sorts a copy of the candidates so checking if a guess could be the answer is a binary search
+        WordDictionary possible = WordDictionary.ofPacked(candidates, count);
+        int chunks = (guesses.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        AtomicInteger checked = new AtomicInteger();
+        AtomicInteger remaining = new AtomicInteger(chunks);
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int from = chunk * CHUNK_SIZE;
+            int to = Math.min(from + CHUNK_SIZE, guesses.size());
+            pool.execute(() -> {
+                try {
+                    Hint hint = searchChunk(search, candidates, count, possible, from, to, checked, start);
+                    if (hint != null && search.offer(hint) && progress != null && !search.cancelled) {
+                        progress.accept(hint);
+                    }
+                    if (remaining.decrementAndGet() == 0) {
+                        search.result.complete(search.best());
+                    }
+                } catch (RuntimeException e) {
+                    search.result.completeExceptionally(e);
+                }
+            });
+        }
+        return search;
+    }
+
+    /**
+     * Finds the best guess in one chunk of the allowed guesses
+     *
+     * @param search the search this chunk belongs to
+     * @param candidates packed answers that are still possible
+     * @param count how many entries of candidates to use
+     * @param possible the candidates as a dictionary
+     * @param from first guess to check
+     * @param to guess to stop at
+     * @param checked counts every guess checked by the search
+     * @param start when the search started
+     * @return Hint the best guess in the chunk or null if the search was cancelled
+     */
+    private Hint searchChunk(Search search, int[] candidates, int count, WordDictionary possible,
+            int from, int to, AtomicInteger checked, long start) {
+        int[] buckets = new int[Scorer.PATTERNS];
+        int bestGuess = WordDictionary.INVALID;
+        double bestEntropy = -1;
+        boolean bestCandidate = false;
+        for (int i = from; i < to; i++) {
+            if (search.cancelled) {
+                return null;
+            }
+            int guess = guesses.get(i);
+            double entropy = entropy(guess, candidates, count, buckets);
+            boolean candidate = possible.contains(guess);
+            if (entropy > bestEntropy || (entropy == bestEntropy && candidate && !bestCandidate)) {
+                bestGuess = guess;
+                bestEntropy = entropy;
+                bestCandidate = candidate;
+            }
+        }
+        int done = checked.addAndGet(to - from);
+        return new Hint(bestGuess, bestEntropy, bestCandidate, done, System.nanoTime() - start);
+    }
+
+    /**
+     * Works out how much a guess is expected to tell the player
+     *
+     * @param guess the packed guess
+     * @param candidates packed answers that are still possible
+     * @param count how many entries of candidates to use
+     * @param buckets list of 243 counts that is reused between calls
+     * @return double the entropy of the colours in bits
+     */
+    static double entropy(int guess, int[] candidates, int count, int[] buckets) {
+        Arrays.fill(buckets, 0);
+        for (int i = 0; i < count; i++) {
+            buckets[Scorer.score(guess, candidates[i])]++;
+        }
+        return entropy(buckets, count);
+    }
+
+    /**
+     * Works out the entropy of how a guess splits the answers that are still possible from the size of each colouring
+     *
+     * @param buckets number of answers that give each of the 243 colourings
+     * @param count number of answers that are still possible
+     * @return double the entropy of the colours in bits
+     */
+    static double entropy(int[] buckets, int count) {
+        // Entropy is log2(n) minus the average of log2 of each bucket size
+        double sum = 0;
+        for (int size : buckets) {
+            if (size > 1) {
+                sum += size * Math.log(size);
+            }
+        }
+        return (Math.log(count) - sum / count) / Math.log(2);
+    }
+}
@@ -0,0 +1,406 @@
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Records every key the game screen handles into a small binary file so a game can be played again later
+ * Each game starts with the seed that picked the word, so the same word is picked again when it is replayed,
+ * and ends with every guess that was made so the replay can check it finished on the same board
+ *
+ * Layout (all big endian): int magic, short version, then one record after another
+ * A key is one byte (0 to 25 for A to Z, 26 for enter, 27 for backspace) and the milliseconds since the last key
+ * as a varint, a game is the byte GAME, long seed, int packed answer (-1 if it was adversarial) and byte flags
+ * (hard mode, adversarial and the tier that picked the word),
+ * and the end of a game is the byte END, byte number of guesses, one int per guess and byte won
+ */
+public final class KeyLog implements Closeable {
+
+    /**
+     * Number at the start of every key log, the letters KEYS
+     */
+    static final int MAGIC = 0x4B455953;
+    /**
+     * Version of the layout
+     */
+    static final short VERSION = 1;
+
+    /**
+     * Key for the enter key, the letters are 0 to 25
+     */
+    public static final int ENTER = 26;
+    /**
+     * Key for the backspace key
+     */
+    public static final int BACKSPACE = 27;
+    /**
+     * Record that starts a game
+     */
+    public static final int GAME = 0xF0;
+    /**
+     * Record that ends a game
+     */
+    public static final int END = 0xF1;
+    /**
+     * Returned by Reader.next once every record has been read
+     */
+    public static final int EOF = -1;
+
+    /**
+     * Flag set when the game was played in hard mode
+     */
+    static final int HARD_MODE = 1;
+    /**
+     * Flag set when the game was adversarial
+     */
+    static final int ADVERSARIAL = 2;
+    /**
+     * The flags are shifted right by this much to get the tier that picked the word
+     */
+    static final int TIER_SHIFT = 2;
+
+    /**
+     * Where the records are written
+     */
+    private final DataOutputStream out;
+    /**
+     * Time of the last key in nanoseconds
+     */
+    private long lastKey;
+
+    /**
+     * Makes a log that writes to a stream
+     *
+     * @param out where the records are written
+     */
+    private KeyLog(DataOutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Makes a new key log, replacing the file if it already exists
+     *
+     * @param file the file to write
+     * @return KeyLog the log
+     * @throws UncheckedIOException if the file couldn't be written
+     */
+    public static KeyLog create(Path file) {
+        try {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            return new KeyLog(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Couldn't make the key log " + file.toAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Picks the index of the word for a game from its seed, the replay uses this to pick the same word again
+     *
+     * @param seed the seed of the game
+     * @param count number of words to pick from
+     * @return int the index of the word
+     */
+    public static int pick(long seed, int count) {
+        return new Random(seed).nextInt(count);
+    }
+
+    /**
+     * Records the start of a game
+     *
+     * @param seed the seed that picked the word
+     * @param answer the packed answer, or -1 if the game is adversarial
+     * @param hardMode true if the game is in hard mode
+     * @param adversarial true if the game is adversarial
+     * @param tier the tier that picked the word
+     */
+    public void startGame(long seed, int answer, boolean hardMode, boolean adversarial, AnswerPicker.Tier tier) {
+        try {
+            out.writeByte(GAME);
+            out.writeLong(seed);
+            out.writeInt(answer);
+            out.writeByte((hardMode ? HARD_MODE : 0) | (adversarial ? ADVERSARIAL : 0) | tier.ordinal() << TIER_SHIFT);
+            lastKey = System.nanoTime();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Records a key
+     *
+     * @param key 0 to 25 for a letter, ENTER or BACKSPACE
+     */
+    public void key(int key) {
+        long now = System.nanoTime();
+        long delay = (now - lastKey) / 1_000_000;
+        lastKey = now;
+        try {
+            out.writeByte(key);
+            // Most keys are less than 128 ms apart so the delay is usually one byte
+            while (delay >= 0x80) {
+                out.writeByte((int) (delay & 0x7F) | 0x80);
+                delay >>>= 7;
+            }
+            out.writeByte((int) delay);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Records the end of a game with every guess on the board and saves the log so far
+     *
+     * @param session the game that just ended
+     */
+    public void endGame(GameSession session) {
+        try {
+            out.writeByte(END);
+            out.writeByte(session.row());
+            for (int row = 0; row < session.row(); row++) {
+                out.writeInt(session.guess(row));
+            }
+            out.writeByte(session.isWon() ? 1 : 0);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Saves and closes the log
+     */
+    @Override
+    public void close() {
+        try {
+            out.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads the records of a key log one at a time
+     * The whole file is read into memory first so replaying never waits for the disk
+     */
+    public static final class Reader {
+
+        /**
+         * The records still to be read
+         */
+        private final ByteBuffer buffer;
+        /**
+         * Seed of the game that was started last
+         */
+        private long seed;
+        /**
+         * Packed answer of the game that was started last
+         */
+        private int answer;
+        /**
+         * Flags of the game that was started last
+         */
+        private int flags;
+        /**
+         * Milliseconds before the last key
+         */
+        private long delay;
+        /**
+         * Guesses of the game that ended last
+         */
+        private final int[] guesses = new int[GameSession.ROWS];
+        /**
+         * Number of guesses of the game that ended last
+         */
+        private int rows;
+        /**
+         * Whether the game that ended last was won
+         */
+        private boolean won;
+
+        /**
+         * Makes a reader for a whole log
+         *
+         * @param bytes the bytes of the log
+         * @throws IllegalArgumentException if it isn't a key log
+         */
+        public Reader(byte[] bytes) {
+            buffer = ByteBuffer.wrap(bytes);
+            if (bytes.length < 6 || buffer.getInt() != MAGIC || buffer.getShort() != VERSION) {
+                throw new IllegalArgumentException("Not a key log");
+            }
+        }
+
+        /**
+         * Reads a key log file
+         *
+         * @param file the file
+         * @return Reader a reader at the first record
+         * @throws UncheckedIOException if the file couldn't be read
+         */
+        public static Reader open(Path file) {
+            try {
+                return new Reader(Files.readAllBytes(file));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Couldn't read the key log " + file.toAbsolutePath(), e);
+            }
+        }
+
+        /**
+         * Reads the next record
+         * A game that was cut off at the end of the file is treated as the end of the log
+         *
+         * @return int a key from 0 to BACKSPACE, GAME, END or EOF
+         * @throws IllegalStateException if a record isn't one of those
+         */
+        public int next() {
+            if (!buffer.hasRemaining()) {
+                return EOF;
+            }
+            int start = buffer.position();
+            try {
+                int record = buffer.get() & 0xFF;
+                if (record <= BACKSPACE) {
+                    delay = 0;
+                    for (int shift = 0; ; shift += 7) {
+                        int b = buffer.get();
+                        delay |= (long) (b & 0x7F) << shift;
+                        if (b >= 0) {
+                            break;
+                        }
+                    }
+                } else if (record == GAME) {
+                    seed = buffer.getLong();
+                    answer = buffer.getInt();
+                    flags = buffer.get();
+                } else if (record == END) {
+                    rows = buffer.get();
+                    if (rows < 0 || rows > GameSession.ROWS) {
+                        throw new IllegalStateException("Game with " + rows + " guesses at byte " + start);
+                    }
+                    for (int row = 0; row < rows; row++) {
+                        guesses[row] = buffer.getInt();
+                    }
+                    won = buffer.get() != 0;
+                } else {
+                    throw new IllegalStateException("Unknown record " + record + " at byte " + start);
+                }
+                return record;
+            } catch (BufferUnderflowException e) {
+                buffer.position(buffer.limit());
+                return EOF;
+            }
+        }
+
+        /**
+         * Returns the seed that picked the word of the last game started
+         *
+         * @return long the seed
+         */
+        public long seed() {
+            return seed;
+        }
+
+        /**
+         * Returns the answer of the last game started
+         *
+         * @return int the packed answer or -1 if it was adversarial
+         */
+        public int answer() {
+            return answer;
+        }
+
+        /**
+         * Checks if the last game started was in hard mode
+         *
+         * @return boolean true for hard mode
+         */
+        public boolean hardMode() {
+            return (flags & HARD_MODE) != 0;
+        }
+
+        /**
+         * Checks if the last game started was adversarial
+         *
+         * @return boolean true if it was adversarial
+         */
+        public boolean adversarial() {
+            return (flags & ADVERSARIAL) != 0;
+        }
+
+        /**
+         * Returns the tier that picked the word of the last game started
+         *
+         * @return Tier the tier, Normal for logs from before there were tiers
+         */
+        public AnswerPicker.Tier tier() {
+            return AnswerPicker.Tier.values()[(flags >> TIER_SHIFT) & 3];
+        }
+
+        /**
+         * Returns how long the player waited before the last key
+         *
+         * @return long the delay in milliseconds
+         */
+        public long delay() {
+            return delay;
+        }
+
+        /**
+         * Returns the number of guesses of the last game that ended
+         *
+         * @return int the number of guesses
+         */
+        public int rows() {
+            return rows;
+        }
+
+        /**
+         * Returns a guess of the last game that ended
+         *
+         * @param row the row of the guess
+         * @return int the packed guess
+         */
+        public int guess(int row) {
+            return guesses[row];
+        }
+
+        /**
+         * Checks if the last game that ended was won
+         *
+         * @return boolean true if it was won
+         */
+        public boolean won() {
+            return won;
+        }
+
+        /**
+         * Checks if a game finished on the same board as the last game that ended
+         *
+         * @param session the replayed game
+         * @return String what is different, or null if the boards are the same
+         */
+        public String compare(GameSession session) {
+            if (session.row() != rows) {
+                return "expected " + rows + " guesses but replayed " + session.row();
+            }
+            for (int row = 0; row < rows; row++) {
+                if (session.guess(row) != guesses[row]) {
+                    return "row " + (row + 1) + " expected " + WordDictionary.unpack(guesses[row]) + " but replayed "
+                            + WordDictionary.unpack(session.guess(row));
+                }
+            }
+            if (session.isWon() != won) {
+                return won ? "expected a win" : "expected a loss";
+            }
+            return null;
+        }
+    }
+}
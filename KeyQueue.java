@@ -0,0 +1,111 @@
+/**
+ * Keys waiting to be handled, in the order they were pressed, with the time each one was pressed
+ * Key presses are only added here when they happen and the whole queue is handled once per frame,
+ * so a burst of keys never handles a key twice or out of order and costs one screen update instead of many
+ *
+ * The keys and times are kept in two arrays used as a ring so adding and taking keys never creates objects
+ */
+public final class KeyQueue {
+
+    /**
+     * Returned by poll when there are no keys waiting
+     */
+    public static final int EMPTY = -1;
+
+    /**
+     * The keys waiting, from head going around to the end
+     */
+    private int[] keys = new int[64];
+    /**
+     * Time each key was pressed in nanoseconds
+     */
+    private long[] times = new long[64];
+    /**
+     * Position of the oldest key
+     */
+    private int head;
+    /**
+     * Number of keys waiting
+     */
+    private int size;
+    /**
+     * Time the last key taken by poll was pressed
+     */
+    private long polledTime;
+
+    /**
+     * Adds a key to the end of the queue, the queue grows if it is full
+     *
+     * @param key the key, never EMPTY
+     * @param time when the key was pressed in nanoseconds
+     */
+    public void add(int key, long time) {
+        if (size == keys.length) {
+            // Moves the keys to the start of bigger arrays so they are in order again
+            int[] newKeys = new int[keys.length * 2];
+            long[] newTimes = new long[keys.length * 2];
+            for (int i = 0; i < size; i++) {
+                newKeys[i] = keys[(head + i) % keys.length];
+                newTimes[i] = times[(head + i) % keys.length];
+            }
+            keys = newKeys;
+            times = newTimes;
+            head = 0;
+        }
+        int tail = (head + size) % keys.length;
+        keys[tail] = key;
+        times[tail] = time;
+        size++;
+    }
+
+    /**
+     * Takes the oldest key off the queue
+     *
+     * @return int the key or EMPTY if there are no keys waiting
+     */
+    public int poll() {
+        if (size == 0) {
+            return EMPTY;
+        }
+        int key = keys[head];
+        polledTime = times[head];
+        head = (head + 1) % keys.length;
+        size--;
+        return key;
+    }
+
+    /**
+     * Returns when the last key taken by poll was pressed
+     *
+     * @return long the time in nanoseconds
+     */
+    public long polledTime() {
+        return polledTime;
+    }
+
+    /**
+     * Returns the number of keys waiting
+     *
+     * @return int the number of keys
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if no keys are waiting
+     *
+     * @return boolean true if the queue is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Throws away every key waiting, used when the game screen is left or a new game starts
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+}
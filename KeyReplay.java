@@ -0,0 +1,208 @@
+import java.nio.IntBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plays a key log back through GameSession as fast as it can without a screen
+ * Every game is started with the word its seed picks, gets the same keys in the same order and is then
+ * checked against the board that was recorded, so a log of a bug can be replayed after it has been fixed
+ * Run with the path of a log, for example: java KeyReplay keys.bin
+ */
+public final class KeyReplay {
+
+    /**
+     * Most problems kept in a result, the rest are only counted
+     */
+    static final int MAX_PROBLEMS = 20;
+
+    /**
+     * Dictionary used to check every guess
+     */
+    private final WordDictionary dictionary;
+    /**
+     * Every word that can be the answer in the order the seeds pick them
+     */
+    private final IntBuffer answers;
+
+    /**
+     * Makes a replay for a set of word lists
+     *
+     * @param dictionary dictionary used to check every guess
+     * @param answers every word that can be the answer in the order of wordleWords.txt
+     */
+    public KeyReplay(WordDictionary dictionary, IntBuffer answers) {
+        this.dictionary = dictionary;
+        this.answers = answers;
+    }
+
+    /**
+     * Plays every game in a log
+     * Keys before the first game or after a game has ended are given to the session the same way the game screen
+     * does, so a session that is over just ignores them
+     *
+     * @param log the log to play
+     * @return Result how many games and keys were played and what didn't match
+     */
+    public Result replay(KeyLog.Reader log) {
+        Result result = new Result();
+        long start = System.nanoTime();
+        GameSession session = null;
+        for (int record = log.next(); record != KeyLog.EOF; record = log.next()) {
+            if (record == KeyLog.GAME) {
+                session = start(log, result);
+                result.games++;
+            } else if (record == KeyLog.END) {
+                if (session != null) {
+                    result.checked++;
+                    String problem = log.compare(session);
+                    if (problem != null) {
+                        result.problem("game " + result.games + ": " + problem);
+                    }
+                }
+            } else {
+                result.keys++;
+                if (session != null) {
+                    press(session, record);
+                }
+            }
+        }
+        result.elapsed = System.nanoTime() - start;
+        return result;
+    }
+
+    /**
+     * Starts the game a GAME record describes
+     *
+     * @param log the log, just after a GAME record
+     * @param result where a different word is reported
+     * @return GameSession the new game
+     */
+    private GameSession start(KeyLog.Reader log, Result result) {
+        GameSession session;
+        if (log.adversarial()) {
+            session = GameSession.adversarial(dictionary, answers);
+        } else if (log.tier().weighted()) {
+            // Easy and Hard picks depend on the difficulty table as well as the seed so they aren't checked
+            session = new GameSession(dictionary, log.answer());
+        } else {
+            // The seed has to pick the word that was played, otherwise the word list has changed since
+            int picked = answers.get(KeyLog.pick(log.seed(), answers.limit()));
+            if (picked != log.answer()) {
+                result.problem("game " + (result.games + 1) + ": seed picks " + WordDictionary.unpack(picked)
+                        + " but " + WordDictionary.unpack(log.answer()) + " was played");
+            }
+            session = new GameSession(dictionary, log.answer());
+        }
+        session.setHardMode(log.hardMode());
+        return session;
+    }
+
+    /**
+     * Gives one key to a game
+     *
+     * @param session the game
+     * @param key 0 to 25 for a letter, ENTER or BACKSPACE
+     */
+    static void press(GameSession session, int key) {
+        if (key == KeyLog.ENTER) {
+            session.submit();
+        } else if (key == KeyLog.BACKSPACE) {
+            session.backspace();
+        } else {
+            session.type((char) ('A' + key));
+        }
+    }
+
+    /**
+     * What happened when a log was played
+     */
+    public static final class Result {
+
+        /**
+         * Number of games started
+         */
+        int games;
+        /**
+         * Number of games that ended and were checked
+         */
+        int checked;
+        /**
+         * Number of keys played
+         */
+        long keys;
+        /**
+         * Time taken in nanoseconds
+         */
+        long elapsed;
+        /**
+         * Number of problems found
+         */
+        int problemCount;
+        /**
+         * The first problems found
+         */
+        final List<String> problems = new ArrayList<>();
+
+        /**
+         * Adds a problem
+         *
+         * @param problem what didn't match
+         */
+        void problem(String problem) {
+            problemCount++;
+            if (problems.size() < MAX_PROBLEMS) {
+                problems.add(problem);
+            }
+        }
+
+        /**
+         * Checks if every game finished on the board that was recorded
+         *
+         * @return boolean true if there were no problems
+         */
+        public boolean passed() {
+            return problemCount == 0;
+        }
+
+        /**
+         * Returns how many keys were played each second
+         *
+         * @return double keys per second
+         */
+        public double keysPerSecond() {
+            return keys / (elapsed / 1e9);
+        }
+
+        /**
+         * Describes the result
+         *
+         * @return String the number of games, keys, problems and the speed
+         */
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder(String.format("%d games (%d checked), %d keys in %.1f ms, %.0f keys/sec, %d problems",
+                    games, checked, keys, elapsed / 1e6, keysPerSecond(), problemCount));
+            for (String problem : problems) {
+                builder.append(System.lineSeparator()).append("  ").append(problem);
+            }
+            return builder.toString();
+        }
+    }
+
+    /**
+     * Plays a key log with the word lists in src/main/java and prints the result
+     *
+     * @param args the path of the log
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("Usage: java KeyReplay <key log>");
+            System.exit(2);
+        }
+        WordLists lists = WordLists.get();
+        Result result = new KeyReplay(lists.dictionary(), lists.answers()).replay(KeyLog.Reader.open(Path.of(args[0])));
+        System.out.println(result);
+        System.exit(result.passed() ? 0 : 1);
+    }
+}
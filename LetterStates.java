@@ -0,0 +1,82 @@
+/**
+ * What the player knows about every letter of the alphabet, used to colour the letters above the board
+ * A letter only ever moves up from not guessed to not in the word, in the word and in the right square,
+ * so a letter that was green stays green even if a later guess has it in the wrong square
+ *
+ * Every change returns a change set with one bit for each letter that changed (bit 0 is A),
+ * so the screen only has to update the letters in it instead of all 26
+ */
+public final class LetterStates {
+
+    /**
+     * The letter hasn't been guessed
+     */
+    public static final int UNUSED = 0;
+    /**
+     * The letter isn't in the word
+     */
+    public static final int ABSENT = Scorer.GREY + 1;
+    /**
+     * The letter is in the word but hasn't been found in the right square
+     */
+    public static final int PRESENT = Scorer.PURPLE + 1;
+    /**
+     * The letter has been found in the right square
+     */
+    public static final int CORRECT = Scorer.GREEN + 1;
+
+    /**
+     * State of every letter, index 0 is A
+     */
+    private final byte[] states = new byte[26];
+    /**
+     * One bit for every letter that isn't UNUSED, bit 0 is A
+     */
+    private int used;
+
+    /**
+     * Learns the colours of a guess
+     *
+     * @param guess the packed guess
+     * @param feedback the colours of the squares from 0 to 242
+     * @return int the change set, one bit for every letter whose state went up
+     */
+    public int apply(int guess, int feedback) {
+        int changed = 0;
+        for (int i = 0; i < WordDictionary.WORD_LENGTH; i++) {
+            int letter = WordDictionary.letterAt(guess, i);
+            // The colours start at grey so adding one gives the state, and the state only goes up
+            int state = Scorer.colorAt(feedback, i) + 1;
+            if (state > states[letter]) {
+                states[letter] = (byte) state;
+                changed |= 1 << letter;
+            }
+        }
+        used |= changed;
+        return changed;
+    }
+
+    /**
+     * Returns the state of a letter
+     *
+     * @param letter the letter from 0 (A) to 25 (Z)
+     * @return int UNUSED, ABSENT, PRESENT or CORRECT
+     */
+    public int state(int letter) {
+        return states[letter];
+    }
+
+    /**
+     * Forgets every letter for a new game
+     *
+     * @return int the change set, one bit for every letter that wasn't UNUSED
+     */
+    public int reset() {
+        int changed = used;
+        for (int letters = used; letters != 0; letters &= letters - 1) {
+            states[Integer.numberOfTrailingZeros(letters)] = UNUSED;
+        }
+        used = 0;
+        return changed;
+    }
+}
@@ -0,0 +1,405 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Measures how long the parts of the game between a key press and the screen updating take
+ * Every measurement is added to a histogram for its probe and sent to Java Flight Recorder as an event,
+ * so it shows up in a recording made with -XX:StartFlightRecording
+ * The histograms can be saved to a file when the game closes by running with -Dwordle.metrics=file
+ */
+public final class Metrics {
+
+    /**
+     * The parts of the game that are measured
+     */
+    public enum Probe {
+        /**
+         * Handling one key press in the game screen
+         */
+        KEY_PRESS("enterText"),
+        /**
+         * Checking the dictionary and scoring a guess when enter is pressed
+         */
+        SUBMIT("submit"),
+        /**
+         * Painting the squares after a guess
+         */
+        CHANGE_COLOR("changeColor"),
+        /**
+         * Loading the word lists
+         */
+        LOAD_WORDS("loadWords"),
+        /**
+         * Building the start screen
+         */
+        START_SCREEN("startScreen"),
+        /**
+         * Building the game screen
+         */
+        GAME_SCREEN("gameScreen"),
+        /**
+         * Building the help screen
+         */
+        HELP_SCREEN("helpScreen"),
+        /**
+         * Building the stats screen
+         */
+        STATS_SCREEN("statsScreen"),
+        /**
+         * Scoring a guess on every board and painting the row when several boards are played
+         */
+        MULTI_SUBMIT("multiSubmit"),
+        /**
+         * From main starting to the start screen being drawn for the first time
+         */
+        FIRST_FRAME("firstFrame"),
+        /**
+         * From main starting to the start screen showing with the word lists loaded so enter starts a game
+         */
+        PLAYABLE("playable"),
+        /**
+         * From a key being pressed to the frame that shows it being laid out
+         */
+        INPUT_TO_FRAME("inputToFrame"),
+        /**
+         * Starting a new game on the same screen when the restart button is clicked
+         */
+        RESTART("restart"),
+        /**
+         * Finding the closest words to a guess that isn't in the word list, away from the JavaFX thread
+         */
+        SUGGEST("suggest"),
+        /**
+         * Finding a hint, from the hint button being clicked to the search checking every guess or the cache
+         * answering, away from the JavaFX thread
+         */
+        HINT("hint");
+
+        /**
+         * Name shown in the overlay, the exported file and the events
+         */
+        final String label;
+        /**
+         * Every measurement of this probe
+         */
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        /**
+         * Makes a probe
+         *
+         * @param label name of the probe
+         */
+        Probe(String label) {
+            this.label = label;
+        }
+    }
+
+    /**
+     * Java Flight Recorder event sent for every measurement
+     */
+    @Name("wordle.HotPath")
+    @Label("Wordle Hot Path")
+    @Category("Wordle")
+    @Description("Time spent in one part of the game between a key press and the screen updating")
+    static final class HotPathEvent extends Event {
+
+        /**
+         * Name of the probe
+         */
+        @Label("Probe")
+        String probe;
+
+        /**
+         * How long it took
+         */
+        @Label("Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long time;
+
+        /**
+         * Number of tile animations playing when it finished
+         */
+        @Label("Active Animations")
+        int activeAnimations;
+    }
+
+    /**
+     * Number of tile animations that are playing
+     */
+    private static final AtomicInteger animations = new AtomicInteger();
+
+    /**
+     * Time main started in nanoseconds, the startup probes are measured from here
+     */
+    private static long launched = System.nanoTime();
+
+    /**
+     * Stops this class from being made since it only has static functions
+     */
+    private Metrics() {
+    }
+
+    /**
+     * Returns the time to pass to record once the measured code has finished
+     *
+     * @return long the current time in nanoseconds
+     */
+    public static long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Records how long a probe took
+     *
+     * @param probe the part of the game that was measured
+     * @param start the time returned by start
+     */
+    public static void record(Probe probe, long start) {
+        long time = System.nanoTime() - start;
+        probe.histogram.record(time);
+
+        // Loading the event class takes a few hundred milliseconds the first time, so it is only used once
+        // Flight Recorder has been started, either with -XX:StartFlightRecording or later with jcmd
+        if (!FlightRecorder.isInitialized()) {
+            return;
+        }
+        HotPathEvent event = new HotPathEvent();
+        if (event.isEnabled()) {
+            event.probe = probe.label;
+            event.time = time;
+            event.activeAnimations = animations.get();
+            event.commit();
+        }
+    }
+
+    /**
+     * Marks the time main started, it should be the first thing main does
+     */
+    public static void launched() {
+        launched = System.nanoTime();
+    }
+
+    /**
+     * Records a startup probe measured from the time main started
+     *
+     * @param probe FIRST_FRAME or PLAYABLE
+     */
+    public static void startup(Probe probe) {
+        record(probe, launched);
+    }
+
+    /**
+     * Describes how long startup took so it can be compared between builds and JVM flags
+     * The time before main is only known to the millisecond and is read last so it doesn't slow startup down
+     *
+     * @return String the time to the first frame and to playable after main and after the JVM started
+     */
+    public static String startupSummary() {
+        double beforeMain = ManagementFactory.getRuntimeMXBean().getUptime() - (System.nanoTime() - launched) / 1e6;
+        double firstFrame = Probe.FIRST_FRAME.histogram.max() / 1e6;
+        double playable = Probe.PLAYABLE.histogram.max() / 1e6;
+        return String.format("Startup: first frame %.1f ms, playable %.1f ms after main (%.1f and %.1f ms after the JVM started)",
+                firstFrame, playable, firstFrame + beforeMain, playable + beforeMain);
+    }
+
+    /**
+     * Counts an animation that has started playing
+     */
+    public static void animationStarted() {
+        animations.incrementAndGet();
+    }
+
+    /**
+     * Counts an animation that has finished playing
+     */
+    public static void animationFinished() {
+        animations.decrementAndGet();
+    }
+
+    /**
+     * Returns the number of animations playing
+     *
+     * @return int the number of animations
+     */
+    public static int activeAnimations() {
+        return animations.get();
+    }
+
+    /**
+     * Describes every probe that has been measured, one line each
+     *
+     * @return String the p50, p99 and max of every probe in microseconds
+     */
+    public static String summary() {
+        StringBuilder builder = new StringBuilder();
+        for (Probe probe : Probe.values()) {
+            LatencyHistogram histogram = probe.histogram;
+            if (histogram.count() > 0) {
+                builder.append(String.format("%-12s p50 %8.1f  p99 %8.1f  max %8.1f us (%d)%n", probe.label,
+                        histogram.percentile(50) / 1e3, histogram.percentile(99) / 1e3, histogram.max() / 1e3,
+                        histogram.count()));
+            }
+        }
+        builder.append("animations ").append(animations.get());
+        return builder.toString();
+    }
+
+    /**
+     * Checks if the timings were asked for by running the game with -Dwordle.metrics=file
+     *
+     * @return boolean true if the timings should be saved and printed
+     */
+    public static boolean requested() {
+        String file = System.getProperty("wordle.metrics");
+        return file != null && !file.isEmpty();
+    }
+
+    /**
+     * Saves the histograms as CSV if the game was run with -Dwordle.metrics=file
+     */
+    public static void exportIfRequested() {
+        if (requested()) {
+            export(Path.of(System.getProperty("wordle.metrics")));
+        }
+    }
+
+    /**
+     * Saves the histograms as CSV, one line per probe
+     *
+     * @param file the file to write
+     * @throws UncheckedIOException if the file couldn't be written
+     */
+    public static void export(Path file) {
+        StringBuilder builder = new StringBuilder("probe,count,p50_ns,p99_ns,max_ns\n");
+        for (Probe probe : Probe.values()) {
+            LatencyHistogram histogram = probe.histogram;
+            builder.append(probe.label).append(',').append(histogram.count()).append(',')
+                    .append(histogram.percentile(50)).append(',').append(histogram.percentile(99)).append(',')
+                    .append(histogram.max()).append('\n');
+        }
+        try {
+            Files.writeString(file, builder, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Couldn't write the metrics to " + file.toAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Histogram of times that keeps about 3% accuracy from 1 nanosecond up to hours
+     * Each power of 2 is split into 32 buckets so recording a time is just a few bit operations
+     */
+    static final class LatencyHistogram {
+
+        /**
+         * Number of buckets each power of 2 is split into, as a power of 2
+         */
+        private static final int SUB_BITS = 5;
+
+        /**
+         * Number of times that landed in each bucket
+         */
+        private final long[] counts = new long[64 << SUB_BITS];
+        /**
+         * Number of times recorded
+         */
+        private long count;
+        /**
+         * Longest time recorded
+         */
+        private long max;
+
+        /**
+         * Adds a time to the histogram
+         *
+         * @param time the time in nanoseconds
+         */
+        synchronized void record(long time) {
+            counts[bucket(Math.max(time, 0))]++;
+            count++;
+            max = Math.max(max, time);
+        }
+
+        /**
+         * Returns the number of times recorded
+         *
+         * @return long the count
+         */
+        synchronized long count() {
+            return count;
+        }
+
+        /**
+         * Returns the longest time recorded
+         *
+         * @return long the time in nanoseconds
+         */
+        synchronized long max() {
+            return max;
+        }
+
+        /**
+         * Returns the time that a percentage of the recorded times are at or below
+         *
+         * @param percent the percentage from 0 to 100
+         * @return long the time in nanoseconds, rounded up to the top of its bucket
+         */
+        synchronized long percentile(double percent) {
+            if (count == 0) {
+                return 0;
+            }
+            long target = Math.max(1, (long) Math.ceil(count * percent / 100));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return Math.min(highestValue(i), max);
+                }
+            }
+            return max;
+        }
+
+        /**
+         * Finds the bucket of a time
+         *
+         * @param value the time
+         * @return int the bucket
+         */
+        private static int bucket(long value) {
+            if (value < (1 << SUB_BITS)) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int sub = (int) (value >>> (exponent - SUB_BITS)) & ((1 << SUB_BITS) - 1);
+            return ((exponent - SUB_BITS + 1) << SUB_BITS) | sub;
+        }
+
+        /**
+         * Returns the biggest time that falls in a bucket
+         *
+         * @param bucket the bucket
+         * @return long the time
+         */
+        private static long highestValue(int bucket) {
+            if (bucket < (1 << SUB_BITS)) {
+                return bucket;
+            }
+            int exponent = (bucket >>> SUB_BITS) + SUB_BITS - 1;
+            long sub = bucket & ((1 << SUB_BITS) - 1);
+            long low = (1L << exponent) | (sub << (exponent - SUB_BITS));
+            return low + (1L << (exponent - SUB_BITS)) - 1;
+        }
+    }
+}
@@ -0,0 +1,296 @@
+/**
+ * One game where every guess is played on several boards at once, each with its own answer
+ * The player gets 5 more guesses than there are boards and wins once every board has been solved
+ * A board stops taking guesses once it is solved, so the colours of later rows are only kept for boards
+ * that are still being played
+ */
+public final class MultiBoardSession {
+
+    /**
+     * Numbers of boards that can be played at once
+     */
+    public static final int[] BOARD_COUNTS = {4, 8, 16};
+    /**
+     * Number of letters in each guess
+     */
+    public static final int COLUMNS = WordDictionary.WORD_LENGTH;
+
+    /**
+     * Dictionary used to check every guess
+     */
+    private final WordDictionary dictionary;
+    /**
+     * The packed answer of every board
+     */
+    private final int[] answers;
+    /**
+     * Number of guesses the player gets
+     */
+    private final int rows;
+    /**
+     * Packed guesses for every row that has been submitted
+     */
+    private final int[] guesses;
+    /**
+     * Colours of every board for every row, the row is the outer index, -1 once the board was solved
+     */
+    private final int[] feedback;
+    /**
+     * Row each board was solved on, or -1 if it hasn't been solved
+     */
+    private final int[] solvedRow;
+    /**
+     * Answers of the boards that are still being played, packed to the front so they can be scored together
+     */
+    private final int[] playing;
+    /**
+     * Board of every answer in playing
+     */
+    private final int[] playingBoards;
+    /**
+     * Scores of the boards that are still being played, filled in by every guess
+     */
+    private final int[] scores;
+    /**
+     * Number of boards still being played
+     */
+    private int playingCount;
+
+    /**
+     * Letters typed into the current row, packed the same way as a full word
+     */
+    private int typed;
+    /**
+     * The row the player is on
+     */
+    private int row;
+    /**
+     * The column the next letter goes into
+     */
+    private int column;
+
+    /**
+     * Starts a new game
+     *
+     * @param dictionary dictionary used to check every guess
+     * @param answers the packed answer of every board
+     * @throws IllegalArgumentException if there are no boards or one of the answers isn't a word
+     */
+    public MultiBoardSession(WordDictionary dictionary, int[] answers) {
+        if (answers.length == 0) {
+            throw new IllegalArgumentException("There has to be at least one board");
+        }
+        for (int answer : answers) {
+            if (answer == WordDictionary.INVALID) {
+                throw new IllegalArgumentException("Every answer must be a 5 letter word");
+            }
+        }
+        this.dictionary = dictionary;
+        this.answers = answers.clone();
+        this.rows = answers.length + 5;
+        this.guesses = new int[rows];
+        this.feedback = new int[rows * answers.length];
+        this.solvedRow = new int[answers.length];
+        this.playing = answers.clone();
+        this.playingBoards = new int[answers.length];
+        this.scores = new int[answers.length];
+        this.playingCount = answers.length;
+        for (int i = 0; i < answers.length; i++) {
+            solvedRow[i] = -1;
+            playingBoards[i] = i;
+        }
+    }
+
+    /**
+     * Types a letter into the next square of every board
+     *
+     * @param c the letter in upper or lower case
+     * @return boolean true if the letter was placed, false if the row is full, the game is over or it isn't a letter
+     */
+    public boolean type(char c) {
+        int letter = WordDictionary.letterIndex(c);
+        if (letter < 0 || column >= COLUMNS || isOver()) {
+            return false;
+        }
+        typed |= letter << shift(column);
+        column++;
+        return true;
+    }
+
+    /**
+     * Removes the last letter typed in the current row
+     *
+     * @return boolean true if a letter was removed
+     */
+    public boolean backspace() {
+        if (column == 0 || isOver()) {
+            return false;
+        }
+        column--;
+        typed &= ~(31 << shift(column));
+        return true;
+    }
+
+    /**
+     * Submits the current row as a guess on every board that is still being played
+     * The feedback of the result is -1 since every board has its own, they are read with feedback
+     *
+     * @return GuessResult what happened to the guess
+     */
+    public GuessResult submit() {
+        if (isOver()) {
+            return GuessResult.GAME_OVER;
+        }
+        if (column < COLUMNS) {
+            return GuessResult.INCOMPLETE;
+        }
+        int guess = typed;
+        if (!dictionary.contains(guess)) {
+            return new GuessResult(GuessResult.Outcome.NOT_A_WORD, guess, -1, -1, false, false);
+        }
+
+        // Scores every board that is left in one pass and then drops the solved ones from the list
+        Scorer.scoreAll(guess, playing, playingCount, scores);
+        int base = row * answers.length;
+        for (int i = 0; i < answers.length; i++) {
+            feedback[base + i] = -1;
+        }
+        int left = 0;
+        for (int i = 0; i < playingCount; i++) {
+            int board = playingBoards[i];
+            feedback[base + board] = scores[i];
+            if (scores[i] == Scorer.ALL_GREEN) {
+                solvedRow[board] = row;
+            } else {
+                playing[left] = playing[i];
+                playingBoards[left] = board;
+                left++;
+            }
+        }
+        playingCount = left;
+
+        int guessRow = row;
+        guesses[row] = guess;
+        row++;
+        column = 0;
+        typed = 0;
+        boolean won = playingCount == 0;
+        return new GuessResult(GuessResult.Outcome.ACCEPTED, guess, -1, guessRow, won, !won && row >= rows);
+    }
+
+    /**
+     * Returns the letter shown in a square, which is the same on every board that was still being played
+     *
+     * @param column column of the square
+     * @param row row of the square
+     * @return char the upper case letter or 0 if the square is empty
+     */
+    public char letterAt(int column, int row) {
+        if (row < this.row) {
+            return (char) ('A' + WordDictionary.letterAt(guesses[row], column));
+        }
+        if (row == this.row && column < this.column) {
+            return (char) ('A' + WordDictionary.letterAt(typed, column));
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the colours of a board for a row that has been submitted
+     *
+     * @param board the board
+     * @param row the row
+     * @return int the score from 0 to 242, or -1 if the board had already been solved
+     * @throws IndexOutOfBoundsException if the row hasn't been submitted
+     */
+    public int feedback(int board, int row) {
+        if (row < 0 || row >= this.row) {
+            throw new IndexOutOfBoundsException("Row " + row + " hasn't been guessed yet");
+        }
+        return feedback[row * answers.length + board];
+    }
+
+    /**
+     * Returns the row a board was solved on
+     *
+     * @param board the board
+     * @return int the row or -1 if it hasn't been solved
+     */
+    public int solvedRow(int board) {
+        return solvedRow[board];
+    }
+
+    /**
+     * Returns the answer of a board
+     *
+     * @param board the board
+     * @return int the packed answer
+     */
+    public int answer(int board) {
+        return answers[board];
+    }
+
+    /**
+     * Returns the number of boards
+     *
+     * @return int the number of boards
+     */
+    public int boards() {
+        return answers.length;
+    }
+
+    /**
+     * Returns the number of guesses the player gets
+     *
+     * @return int the number of rows on every board
+     */
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * Returns the row the player is on, which is also the number of guesses made
+     *
+     * @return int the row
+     */
+    public int row() {
+        return row;
+    }
+
+    /**
+     * Returns the column the next letter goes into
+     *
+     * @return int the column
+     */
+    public int column() {
+        return column;
+    }
+
+    /**
+     * Checks if every board has been solved
+     *
+     * @return boolean true if the game was won
+     */
+    public boolean isWon() {
+        return playingCount == 0;
+    }
+
+    /**
+     * Checks if the game has ended
+     *
+     * @return boolean true if the game was won or every row has been used
+     */
+    public boolean isOver() {
+        return playingCount == 0 || row >= rows;
+    }
+
+    /**
+     * Returns how far to shift a letter for a column
+     *
+     * @param column the column from 0 to 4
+     * @return int the number of bits to shift
+     */
+    private static int shift(int column) {
+        return (COLUMNS - 1 - column) * WordDictionary.BITS_PER_LETTER;
+    }
+}
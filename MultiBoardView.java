@@ -0,0 +1,171 @@
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Paint;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * Draws every board of a MultiBoardSession onto one canvas
+ * The squares are painted instead of being a Rectangle and a Text each, so 16 boards are still one node
+ * and only the squares that changed are painted again after a key press
+ */
+public final class MultiBoardView {
+
+    /**
+     * Space between two boards in pixels
+     */
+    private static final double BOARD_GAP = 12;
+
+    /**
+     * The canvas every board is drawn on
+     */
+    private final Canvas canvas;
+    /**
+     * Used to draw on the canvas
+     */
+    private final GraphicsContext graphics;
+    /**
+     * The game being shown
+     */
+    private MultiBoardSession session;
+    /**
+     * Number of boards next to each other
+     */
+    private int boardsPerLine;
+    /**
+     * Width and height of a square in pixels
+     */
+    private double cell;
+    /**
+     * Set to true when the squares should be drawn for dark mode
+     */
+    private boolean darkMode;
+
+    /**
+     * Makes a view of a fixed size
+     *
+     * @param width width of the canvas in pixels
+     * @param height height of the canvas in pixels
+     */
+    public MultiBoardView(double width, double height) {
+        canvas = new Canvas(width, height);
+        graphics = canvas.getGraphicsContext2D();
+        graphics.setTextAlign(TextAlignment.CENTER);
+        graphics.setTextBaseline(VPos.CENTER);
+    }
+
+    /**
+     * Returns the canvas so it can be added to a screen
+     *
+     * @return Canvas the canvas
+     */
+    public Canvas canvas() {
+        return canvas;
+    }
+
+    /**
+     * Shows a new game and works out the biggest squares that fit every board
+     *
+     * @param session the game to show
+     */
+    public void show(MultiBoardSession session) {
+        this.session = session;
+        int boards = session.boards();
+        cell = 0;
+        // Tries every way of splitting the boards into equal lines and keeps the one with the biggest squares
+        for (int lines = 1; lines <= boards; lines++) {
+            if (boards % lines != 0) {
+                continue;
+            }
+            int perLine = boards / lines;
+            double width = (canvas.getWidth() - BOARD_GAP * (perLine - 1)) / (perLine * MultiBoardSession.COLUMNS);
+            double height = (canvas.getHeight() - BOARD_GAP * (lines - 1)) / (lines * session.rows());
+            double size = Math.floor(Math.min(width, height));
+            if (size > cell) {
+                cell = size;
+                boardsPerLine = perLine;
+            }
+        }
+        graphics.setFont(Font.font("Times New Roman", cell * 0.6));
+        paintAll();
+    }
+
+    /**
+     * Changes between light and dark mode and paints everything again
+     *
+     * @param darkMode true for dark mode
+     */
+    public void setDarkMode(boolean darkMode) {
+        this.darkMode = darkMode;
+        if (session != null) {
+            paintAll();
+        }
+    }
+
+    /**
+     * Paints every square of every board
+     */
+    public void paintAll() {
+        graphics.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        for (int board = 0; board < session.boards(); board++) {
+            for (int row = 0; row < session.rows(); row++) {
+                for (int column = 0; column < MultiBoardSession.COLUMNS; column++) {
+                    paintSquare(board, column, row);
+                }
+            }
+        }
+    }
+
+    /**
+     * Paints one square of the current row on every board, used when a letter is typed or removed
+     *
+     * @param column the column of the square
+     */
+    public void paintTyped(int column) {
+        for (int board = 0; board < session.boards(); board++) {
+            paintSquare(board, column, session.row());
+        }
+    }
+
+    /**
+     * Paints a row that has just been submitted on every board
+     *
+     * @param row the row
+     */
+    public void paintRow(int row) {
+        for (int board = 0; board < session.boards(); board++) {
+            for (int column = 0; column < MultiBoardSession.COLUMNS; column++) {
+                paintSquare(board, column, row);
+            }
+        }
+    }
+
+    /**
+     * Paints one square with its colour and letter
+     * Boards that have been solved stay empty below the row they were solved on
+     *
+     * @param board the board
+     * @param column the column of the square
+     * @param row the row of the square
+     */
+    private void paintSquare(int board, int column, int row) {
+        double x = (board % boardsPerLine) * (cell * MultiBoardSession.COLUMNS + BOARD_GAP) + column * cell;
+        double y = (board / boardsPerLine) * (cell * session.rows() + BOARD_GAP) + row * cell;
+        int solved = session.solvedRow(board);
+        boolean hidden = solved >= 0 && row > solved;
+
+        Paint fill = darkMode ? Wordle.BLACK : Wordle.GREY;
+        if (!hidden && row < session.row()) {
+            fill = Wordle.colorPaint(Scorer.colorAt(session.feedback(board, row), column));
+        }
+        graphics.setFill(fill);
+        graphics.fillRect(x + 1, y + 1, cell - 2, cell - 2);
+
+        char letter = hidden ? 0 : session.letterAt(column, row);
+        if (letter != 0) {
+            graphics.setFill(Wordle.WHITE);
+            graphics.fillText(String.valueOf(letter), x + cell / 2, y + cell / 2);
+        }
+    }
+}
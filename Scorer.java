@@ -0,0 +1,159 @@
+/**
+ * Works out the colour of each square for a guess without needing any of the screen
+ * The colours of all 5 squares are returned as one base 3 number from 0 to 242
+ * where the first square is the highest digit
+ * Nothing here creates objects or keeps any state so it can be called from any thread
+ */
+public final class Scorer {
+
+    /**
+     * Digit used when the letter is not in the word
+     */
+    public static final int GREY = 0;
+    /**
+     * Digit used when the letter is in the word but in the wrong spot
+     */
+    public static final int PURPLE = 1;
+    /**
+     * Digit used when the letter is in the right spot
+     */
+    public static final int GREEN = 2;
+
+    /**
+     * Number of different results a guess can have (3 to the power of 5)
+     */
+    public static final int PATTERNS = 243;
+    /**
+     * Result when every square is green
+     */
+    public static final int ALL_GREEN = PATTERNS - 1;
+
+    /**
+     * Powers of 3 for each square, the first square is the highest digit
+     */
+    private static final int[] PLACE = {81, 27, 9, 3, 1};
+    /**
+     * The lowest bit of every letter of a packed word
+     */
+    private static final int LOWEST_BITS = 0b00001_00001_00001_00001_00001;
+
+    /**
+     * Stops this class from being made since it only has static functions
+     */
+    private Scorer() {
+    }
+
+    /**
+     * Scores a guess against the answer
+     *
+     * @param guess the letters guessed in upper or lower case
+     * @param answer the letters of the answer in upper or lower case
+     * @return int the colours of the squares from 0 to 242
+     */
+    public static int score(char[] guess, char[] answer) {
+        int packedGuess = WordDictionary.pack(guess);
+        int packedAnswer = WordDictionary.pack(answer);
+        if (packedGuess == WordDictionary.INVALID || packedAnswer == WordDictionary.INVALID) {
+            throw new IllegalArgumentException("Both words must be 5 letters from A to Z");
+        }
+        return score(packedGuess, packedAnswer);
+    }
+
+    /**
+     * Scores a packed guess against a packed answer
+     * Got the idea for the logic behind duplicate letters here: https://stackoverflow.com/questions/71617350/duplicate-letters-in-wordle
+     *
+     * @param guess the packed guess
+     * @param answer the packed answer
+     * @return int the colours of the squares from 0 to 242
+     */
+    public static int score(int guess, int answer) {
+        // Each bit says if that letter of the answer has already been matched to a letter of the guess
+        // This does the same job as counting each letter of the answer but without needing a list
+        int used = 0;
+        int code = 0;
+
+        // First give every letter in the right position a green
+        for (int x = 0; x < 5; x++) {
+            if (WordDictionary.letterAt(guess, x) == WordDictionary.letterAt(answer, x)) {
+                used |= 1 << x;
+                code += GREEN * PLACE[x];
+            }
+        }
+
+        // Then match the rest of the letters to any unused letter of the answer
+        for (int x = 0; x < 5; x++) {
+            int guessLetter = WordDictionary.letterAt(guess, x);
+            if (guessLetter == WordDictionary.letterAt(answer, x)) {
+                continue;
+            }
+            for (int y = 0; y < 5; y++) {
+                if ((used & (1 << y)) == 0 && WordDictionary.letterAt(answer, y) == guessLetter) {
+                    used |= 1 << y;
+                    code += PURPLE * PLACE[x];
+                    break;
+                }
+            }
+        }
+        return code;
+    }
+
+    /**
+     * Scores one packed guess against many packed answers at once
+     * All 5 greens of an answer are found with a few bit operations on the whole packed word, so only
+     * the letters that aren't green go through the slower search for purples
+     *
+     * @param guess the packed guess
+     * @param answers the packed answers
+     * @param count number of answers to score from the start of the array
+     * @param scores filled with the colours of the squares for each answer from 0 to 242
+     */
+    public static void scoreAll(int guess, int[] answers, int count, int[] scores) {
+        for (int i = 0; i < count; i++) {
+            int answer = answers[i];
+            // A letter is green when its 5 bits match, so ORing the 5 bits of every letter of the difference
+            // into the lowest one leaves a 0 there for every green letter
+            int diff = guess ^ answer;
+            int greens = ~(diff | diff >>> 1 | diff >>> 2 | diff >>> 3 | diff >>> 4) & LOWEST_BITS;
+            if (greens == LOWEST_BITS) {
+                scores[i] = ALL_GREEN;
+                continue;
+            }
+
+            int used = 0;
+            int code = 0;
+            for (int x = 0; x < 5; x++) {
+                if ((greens & (1 << (4 - x) * 5)) != 0) {
+                    used |= 1 << x;
+                    code += GREEN * PLACE[x];
+                }
+            }
+            int greenSquares = used;
+            for (int x = 0; x < 5; x++) {
+                if ((greenSquares & (1 << x)) != 0) {
+                    continue;
+                }
+                int guessLetter = WordDictionary.letterAt(guess, x);
+                for (int y = 0; y < 5; y++) {
+                    if ((used & (1 << y)) == 0 && WordDictionary.letterAt(answer, y) == guessLetter) {
+                        used |= 1 << y;
+                        code += PURPLE * PLACE[x];
+                        break;
+                    }
+                }
+            }
+            scores[i] = code;
+        }
+    }
+
+    /**
+     * Returns the colour of one square from a score
+     *
+     * @param code the score from 0 to 242
+     * @param position position of the square from 0 to 4
+     * @return int GREY, PURPLE or GREEN
+     */
+    public static int colorAt(int code, int position) {
+        return (code / PLACE[position]) % 3;
+    }
+}
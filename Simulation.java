@@ -0,0 +1,386 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+/**
+ * Plays a strategy against every word in wordleWords.txt without opening the game window
+ * The games are played in blocks of 256 answers spread across every core, and each block is written to a CSV or
+ * JSON file as soon as it finishes, so the file is in the order of wordleWords.txt and only one block is in memory
+ * Every game uses the same GameSession and scoring as the game screen so the results match real games
+ *
+ * Usage: java Simulation [--strategy entropy|random] [--seed number] [--threads number] [--out file.csv|file.json]
+ */
+public class Simulation {
+
+    /**
+     * Number of answers played together before their rows are written
+     */
+    static final int BLOCK = 256;
+
+    /**
+     * Picks the next guess of a game
+     * Strategies are shared by every thread so they must not keep any state for a single game
+     */
+    interface Strategy {
+        /**
+         * Picks the next guess
+         *
+         * @param session the game being played
+         * @param candidates the answers that are still possible
+         * @param rand random numbers for this game
+         * @return int position of the guess in the dictionary
+         */
+        int guess(GameSession session, CandidateSet candidates, Random rand);
+    }
+
+    /**
+     * The word lists
+     */
+    private final WordLists lists;
+    /**
+     * Score of every guess against every answer
+     */
+    private final FeedbackMatrix matrix;
+    /**
+     * Position of every answer in the dictionary, or -1 if it isn't in the dictionary
+     */
+    private final int[] answerGuess;
+
+    /**
+     * Makes a simulation over the word lists
+     *
+     * @param lists the word lists
+     * @param matrix scores of every guess against every answer
+     */
+    Simulation(WordLists lists, FeedbackMatrix matrix) {
+        this.lists = lists;
+        this.matrix = matrix;
+        this.answerGuess = new int[lists.answerCount()];
+        for (int i = 0; i < answerGuess.length; i++) {
+            answerGuess[i] = lists.dictionary().indexOf(lists.answer(i));
+        }
+    }
+
+    /**
+     * Runs the simulation from the command line
+     *
+     * @param args the options described at the top of this class
+     */
+    public static void main(String[] args) {
+        String strategyName = "entropy";
+        long seed = 2022;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path out = Path.of("simulation.csv");
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--strategy":
+                    strategyName = args[i + 1];
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[i + 1]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--out":
+                    out = Path.of(args[i + 1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        WordLists lists = WordLists.get();
+        Simulation simulation = new Simulation(lists, FeedbackMatrix.open(lists));
+        Strategy strategy = simulation.strategy(strategyName);
+        Report report = simulation.run(strategy, seed, threads, out);
+        System.out.println("strategy " + strategyName + ", seed " + seed + ", " + threads + " threads");
+        System.out.print(report);
+    }
+
+    /**
+     * Finds a strategy by name
+     *
+     * @param name entropy or random
+     * @return Strategy the strategy
+     * @throws IllegalArgumentException if there is no strategy with that name
+     */
+    Strategy strategy(String name) {
+        switch (name) {
+            case "entropy":
+                return new EntropyStrategy();
+            case "random":
+                return new RandomStrategy();
+            default:
+                throw new IllegalArgumentException("Unknown strategy " + name + ", use entropy or random");
+        }
+    }
+
+    /**
+     * Plays every answer once and writes the games to a file in the order of the answers
+     * The answers are played one block at a time and each block is written once all of its games have finished,
+     * so the file is the same whatever order the threads finish in and at most one block of rows is held
+     *
+     * @param strategy the strategy to play
+     * @param seed seed for the random numbers, each game gets its own so the results don't depend on the threads
+     * @param threads number of threads to play on
+     * @param out the CSV or JSON file to write
+     * @return Report the totals of every game
+     * @throws UncheckedIOException if the file couldn't be written
+     */
+    Report run(Strategy strategy, long seed, int threads, Path out) {
+        boolean json = out.toString().endsWith(".json");
+        // Index 0 counts failures and 1 to 6 count wins in that many guesses
+        AtomicLongArray distribution = new AtomicLongArray(GameSession.ROWS + 1);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        try (BufferedWriter writer = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+            writer.write(json ? "[\n" : "answer,guesses,won\n");
+            int count = lists.answerCount();
+            // Rows of the block being played, by answer from the start of the block
+            String[] rows = new String[Math.min(BLOCK, count)];
+            for (int from = 0; from < count; from += BLOCK) {
+                int first = from;
+                int to = Math.min(count, from + BLOCK);
+                pool.submit(() -> IntStream.range(first, to).parallel().forEach(answer -> {
+                    GameSession session = play(strategy, answer, new Random(seed * 31 + answer));
+                    boolean won = session.isWon();
+                    distribution.incrementAndGet(won ? session.row() : 0);
+                    String word = WordDictionary.unpack(lists.answer(answer));
+                    rows[answer - first] = json
+                            ? (answer == 0 ? "" : ",\n") + "{\"answer\":\"" + word + "\",\"guesses\":" + session.row()
+                                    + ",\"won\":" + won + "}"
+                            : word + "," + session.row() + "," + won + "\n";
+                })).join();
+                for (int i = 0; i < to - from; i++) {
+                    writer.write(rows[i]);
+                }
+            }
+            writer.write(json ? "\n]\n" : "");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Couldn't write the results to " + out.toAbsolutePath(), e);
+        } finally {
+            pool.shutdown();
+        }
+        return new Report(distribution, System.nanoTime() - start);
+    }
+
+    /**
+     * Plays one game
+     *
+     * @param strategy the strategy to play
+     * @param answer position of the answer in wordleWords.txt
+     * @param rand random numbers for this game
+     * @return GameSession the finished game
+     */
+    GameSession play(Strategy strategy, int answer, Random rand) {
+        GameSession session = new GameSession(lists.dictionary(), lists.answer(answer));
+        CandidateSet candidates = new CandidateSet(lists.answers());
+        while (!session.isOver()) {
+            int guess = lists.dictionary().get(strategy.guess(session, candidates, rand));
+            for (int x = 0; x < GameSession.COLUMNS; x++) {
+                session.type((char) ('A' + WordDictionary.letterAt(guess, x)));
+            }
+            GuessResult result = session.submit();
+            if (!result.isAccepted()) {
+                throw new IllegalStateException("The strategy guessed " + result);
+            }
+            candidates.apply(result.guess(), result.feedback());
+        }
+        return session;
+    }
+
+    /**
+     * Guesses a random answer that is still possible
+     */
+    final class RandomStrategy implements Strategy {
+
+        /**
+         * Picks a random answer that is still possible and is in the dictionary
+         *
+         * @param session the game being played
+         * @param candidates the answers that are still possible
+         * @param rand random numbers for this game
+         * @return int position of the guess in the dictionary
+         */
+        @Override
+        public int guess(GameSession session, CandidateSet candidates, Random rand) {
+            int skip = rand.nextInt(candidates.count());
+            int fallback = -1;
+            for (int answer = candidates.next(0); answer >= 0; answer = candidates.next(answer + 1)) {
+                if (answerGuess[answer] >= 0) {
+                    fallback = answerGuess[answer];
+                    if (skip <= 0) {
+                        return fallback;
+                    }
+                }
+                skip--;
+            }
+            if (fallback < 0) {
+                throw new IllegalStateException("None of the possible answers are in the dictionary");
+            }
+            return fallback;
+        }
+    }
+
+    /**
+     * Guesses the word with the highest entropy over the answers that are still possible
+     * The scores come from the feedback matrix instead of being worked out again
+     */
+    final class EntropyStrategy implements Strategy {
+
+        /**
+         * The first guess is the same for every game so it is only worked out once
+         */
+        private int firstGuess = -1;
+
+        /**
+         * Picks the guess with the highest entropy
+         *
+         * @param session the game being played
+         * @param candidates the answers that are still possible
+         * @param rand not used since this strategy always picks the same guess
+         * @return int position of the guess in the dictionary
+         */
+        @Override
+        public int guess(GameSession session, CandidateSet candidates, Random rand) {
+            if (session.row() == 0) {
+                synchronized (this) {
+                    if (firstGuess < 0) {
+                        firstGuess = bestGuess(candidates);
+                    }
+                    return firstGuess;
+                }
+            }
+            return bestGuess(candidates);
+        }
+    }
+
+    /**
+     * Finds the guess with the highest entropy over the answers that are still possible
+     * Ties go to a guess that could be the answer and then to the alphabetically first guess, the same as the hints
+     *
+     * @param candidates the answers that are still possible
+     * @return int position of the guess in the dictionary
+     */
+    int bestGuess(CandidateSet candidates) {
+        int count = candidates.count();
+        int[] possible = new int[count];
+        int i = 0;
+        for (int answer = candidates.next(0); answer >= 0; answer = candidates.next(answer + 1)) {
+            possible[i++] = answer;
+        }
+        // With one or two answers left one of them is the best guess
+        if (count <= 2) {
+            for (int answer : possible) {
+                if (answerGuess[answer] >= 0) {
+                    return answerGuess[answer];
+                }
+            }
+        }
+
+        int[] buckets = new int[Scorer.PATTERNS];
+        int best = -1;
+        double bestEntropy = -1;
+        boolean bestCandidate = false;
+        for (int guess = 0; guess < matrix.guessCount(); guess++) {
+            Arrays.fill(buckets, 0);
+            for (int answer : possible) {
+                buckets[matrix.feedback(guess, answer)]++;
+            }
+            // Worked out the same way as the hints so both pick the same guess when two are equal
+            double entropy = HintEngine.entropy(buckets, count);
+            // A guess that is all green for some possible answer could be the answer
+            boolean candidate = buckets[Scorer.ALL_GREEN] > 0;
+            if (entropy > bestEntropy || (entropy == bestEntropy && candidate && !bestCandidate)) {
+                best = guess;
+                bestEntropy = entropy;
+                bestCandidate = candidate;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Totals of a simulation
+     */
+    static final class Report {
+
+        /**
+         * Index 0 counts failures and 1 to 6 count wins in that many guesses
+         */
+        final long[] distribution;
+        /**
+         * How long the simulation took in nanoseconds
+         */
+        final long time;
+
+        /**
+         * Makes a report
+         *
+         * @param distribution the number of games for each number of guesses
+         * @param time how long the simulation took in nanoseconds
+         */
+        Report(AtomicLongArray distribution, long time) {
+            this.distribution = new long[distribution.length()];
+            for (int i = 0; i < this.distribution.length; i++) {
+                this.distribution[i] = distribution.get(i);
+            }
+            this.time = time;
+        }
+
+        /**
+         * Returns the number of games played
+         *
+         * @return long the number of games
+         */
+        long games() {
+            long games = 0;
+            for (long count : distribution) {
+                games += count;
+            }
+            return games;
+        }
+
+        /**
+         * Returns the average number of guesses in the games that were won
+         *
+         * @return double the average
+         */
+        double averageGuesses() {
+            long guesses = 0;
+            long wins = 0;
+            for (int i = 1; i < distribution.length; i++) {
+                guesses += i * distribution[i];
+                wins += distribution[i];
+            }
+            return wins == 0 ? 0 : (double) guesses / wins;
+        }
+
+        /**
+         * Describes the report
+         *
+         * @return String the report as text
+         */
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            long games = games();
+            for (int i = 1; i < distribution.length; i++) {
+                builder.append(String.format("%d guesses: %d%n", i, distribution[i]));
+            }
+            builder.append(String.format("failed: %d (%.2f%%)%n", distribution[0], 100.0 * distribution[0] / games));
+            builder.append(String.format("average guesses: %.3f%n", averageGuesses()));
+            builder.append(String.format("%d games in %.1f s, %.1f games/sec%n", games, time / 1e9, games / (time / 1e9)));
+            return builder.toString();
+        }
+    }
+}
@@ -0,0 +1,227 @@
+import java.util.Arrays;
+
+/**
+ * Finds the words closest to a word that isn't in the dictionary, so the game can say what the player may have meant
+ * Two 5 letter words are at most 2 edits apart only if removing the same number of letters (up to 2) from each
+ * leaves the same letters, so every word is filed under all 16 ways of removing 0, 1 or 2 of its letters
+ * A search only looks at the words filed under the same keys as the typed word, and checks each of them with the
+ * edit distance worked out with bit operations (Myers' algorithm) instead of filling in a table
+ */
+public final class SpellIndex {
+
+    /**
+     * Words further than this from the typed word are never suggested
+     */
+    static final int MAX_DISTANCE = 2;
+    /**
+     * Letters kept for every key, bit 0 is the first letter: the whole word, then every way of removing one letter,
+     * then every way of removing two
+     */
+    private static final int[] KEEP = {
+        0b11111,
+        0b11110, 0b11101, 0b11011, 0b10111, 0b01111,
+        0b11100, 0b11010, 0b10110, 0b01110, 0b11001, 0b10101, 0b01101, 0b10011, 0b01011, 0b00111
+    };
+    /**
+     * Number of keys with at most one letter removed, they come first in KEEP
+     */
+    private static final int ONE_REMOVED = 6;
+
+    /**
+     * Packed word of every entry in the dictionary
+     */
+    private final int[] words;
+    /**
+     * 0 if a word is common and 1 if it isn't, common words are suggested first
+     */
+    private final byte[] ranks;
+    /**
+     * Every key and the position of a word filed under it, the key in the top 32 bits, sorted so the words of a key
+     * are next to each other
+     */
+    private final long[] entries;
+
+    /**
+     * Files every word in a dictionary under all of its keys
+     *
+     * @param dictionary the words that can be suggested
+     * @param common words that are suggested before the others when they are as close, like the wordle words
+     */
+    public SpellIndex(WordDictionary dictionary, WordDictionary common) {
+        int size = dictionary.size();
+        words = new int[size];
+        ranks = new byte[size];
+        long[] all = new long[size * KEEP.length];
+        for (int i = 0; i < size; i++) {
+            int word = dictionary.get(i);
+            words[i] = word;
+            ranks[i] = (byte) (common.contains(word) ? 0 : 1);
+            for (int k = 0; k < KEEP.length; k++) {
+                all[i * KEEP.length + k] = (long) key(word, KEEP[k]) << 32 | i;
+            }
+        }
+        Arrays.sort(all);
+        // Words with a letter twice get some keys twice, only one of each is kept
+        int kept = 0;
+        for (int i = 0; i < all.length; i++) {
+            if (kept == 0 || all[i] != all[kept - 1]) {
+                all[kept++] = all[i];
+            }
+        }
+        entries = Arrays.copyOf(all, kept);
+    }
+
+    /**
+     * Makes the key of a word with some letters removed
+     *
+     * @param word the packed word
+     * @param keep one bit for every letter that is kept, bit 0 is the first letter
+     * @return int the letters that are kept packed 5 bits each with the number of letters above them
+     */
+    static int key(int word, int keep) {
+        int key = 0;
+        for (int i = 0; i < WordDictionary.WORD_LENGTH; i++) {
+            if ((keep & (1 << i)) != 0) {
+                key = key << 5 | WordDictionary.letterAt(word, i);
+            }
+        }
+        return Integer.bitCount(keep) << 25 | key;
+    }
+
+    /**
+     * Finds the closest words to a word
+     * The closest words come first, then the common ones, then in alphabetical order
+     * If enough words one edit away are found the keys with two letters removed aren't looked at
+     *
+     * @param word the packed word that was typed
+     * @param count the most words to return
+     * @return int[] the packed words, empty if none are within MAX_DISTANCE
+     */
+    public int[] suggest(int word, int count) {
+        if (count <= 0) {
+            return new int[0];
+        }
+        int[] peq = new int[26];
+        masks(word, peq);
+
+        // Each entry is the distance, then the rank, then the word so sorting the numbers sorts the suggestions
+        long[] best = new long[count];
+        int found = 0;
+        for (int k = 0; k < KEEP.length; k++) {
+            // Every word one edit away shares a key with at most one letter removed
+            if (k == ONE_REMOVED && found == count && best[count - 1] >>> 33 <= 1) {
+                break;
+            }
+            long key = (long) key(word, KEEP[k]) << 32;
+            for (int e = lowerBound(key); e < entries.length && (entries[e] & 0xFFFFFFFF00000000L) == key; e++) {
+                int index = (int) entries[e];
+                int distance = distance(peq, words[index]);
+                if (distance == 0 || distance > MAX_DISTANCE) {
+                    continue;
+                }
+                long suggestion = (long) distance << 33 | (long) ranks[index] << 32 | words[index];
+                if (found == count && suggestion >= best[count - 1]) {
+                    continue;
+                }
+                // A word shares several keys with the typed word so it may already be in the list
+                int i = 0;
+                while (i < found && best[i] < suggestion) {
+                    i++;
+                }
+                if (i < found && best[i] == suggestion) {
+                    continue;
+                }
+                // Slides the worse suggestions down one place and drops the last one if the list is full
+                int last = Math.min(found, count - 1);
+                System.arraycopy(best, i, best, i + 1, last - i);
+                best[i] = suggestion;
+                if (found < count) {
+                    found++;
+                }
+            }
+        }
+
+        int[] suggestions = new int[found];
+        for (int i = 0; i < found; i++) {
+            suggestions[i] = (int) best[i];
+        }
+        return suggestions;
+    }
+
+    /**
+     * Finds the first entry that isn't less than a number
+     *
+     * @param value the number
+     * @return int position of the entry, or the number of entries if every entry is less
+     */
+    private int lowerBound(long value) {
+        int low = 0;
+        int high = entries.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (entries[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the number of words that can be suggested
+     *
+     * @return int the number of words
+     */
+    public int size() {
+        return words.length;
+    }
+
+    /**
+     * Works out which positions of a word hold each letter, bit 0 is the first letter
+     *
+     * @param word the packed word
+     * @param peq list of 26 masks that is filled in, index 0 is A
+     */
+    static void masks(int word, int[] peq) {
+        Arrays.fill(peq, 0);
+        for (int i = 0; i < WordDictionary.WORD_LENGTH; i++) {
+            peq[WordDictionary.letterAt(word, i)] |= 1 << i;
+        }
+    }
+
+    /**
+     * Works out the edit distance between two words, the fewest letters that have to be added, removed or changed
+     * to turn one into the other
+     * Each column of the usual table is kept as the bits of how much each square goes up or down from the one above,
+     * so a whole column is worked out at once
+     *
+     * @param peq the masks of the first word from masks
+     * @param word the second packed word
+     * @return int the edit distance from 0 to 5
+     */
+    static int distance(int[] peq, int word) {
+        int last = 1 << (WordDictionary.WORD_LENGTH - 1);
+        int up = (1 << WordDictionary.WORD_LENGTH) - 1;
+        int down = 0;
+        int score = WordDictionary.WORD_LENGTH;
+        for (int i = 0; i < WordDictionary.WORD_LENGTH; i++) {
+            int eq = peq[WordDictionary.letterAt(word, i)];
+            int xv = eq | down;
+            int xh = (((eq & up) + up) ^ up) | eq;
+            int hp = down | ~(xh | up);
+            int hm = up & xh;
+            if ((hp & last) != 0) {
+                score++;
+            } else if ((hm & last) != 0) {
+                score--;
+            }
+            // The top square of every column is one more than the last, so a one is shifted in
+            hp = (hp << 1) | 1;
+            hm <<= 1;
+            up = hm | ~(xv | hp);
+            down = hp & xv;
+        }
+        return score;
+    }
+}
@@ -0,0 +1,186 @@
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Graph of every word in the dictionary that can tell after each letter if the letters so far start a word
+ * It is a trie where branches that end the same way are shared (a DAWG), so words like CRANE and GRANE
+ * use the same nodes for RANE
+ *
+ * Every node is a mask of the letters that can come next and the position of its first child in one shared
+ * array of children, so taking a step is a bit count and an array read and never creates any objects
+ */
+public final class WordDawg {
+
+    /**
+     * Node returned when the letters so far don't start any word
+     */
+    public static final int NONE = -1;
+    /**
+     * Node every word ends at, it has no children
+     */
+    static final int END = 0;
+
+    /**
+     * Letters that can come next for every node, bit 0 is A
+     */
+    private final int[] masks;
+    /**
+     * Position in children of the first child of every node
+     */
+    private final int[] firsts;
+    /**
+     * Children of every node in the order of their letters
+     */
+    private final int[] children;
+    /**
+     * Node for no letters typed
+     */
+    private final int root;
+
+    /**
+     * Makes a graph from arrays that have already been built
+     *
+     * @param masks letters that can come next for every node
+     * @param firsts position of the first child of every node
+     * @param children children of every node
+     * @param root node for no letters typed
+     */
+    private WordDawg(int[] masks, int[] firsts, int[] children, int root) {
+        this.masks = masks;
+        this.firsts = firsts;
+        this.children = children;
+        this.root = root;
+    }
+
+    /**
+     * Builds the graph for every word in a dictionary
+     * The words are already sorted so every node is made from the last letter back to the first,
+     * and a node that has the same letters going to the same children as another one is reused
+     *
+     * @param dictionary the dictionary
+     * @return WordDawg the graph
+     */
+    public static WordDawg of(WordDictionary dictionary) {
+        int[] masks = new int[64];
+        int[] firsts = new int[64];
+        int[] children = new int[64];
+        int nodeCount = 1;
+        int childCount = 0;
+        HashMap<String, Integer> seen = new HashMap<>();
+
+        // Starts with every whole word, all of them end at the same node
+        int size = dictionary.size();
+        int[] prefixes = new int[size];
+        int[] nodes = new int[size];
+        for (int i = 0; i < size; i++) {
+            prefixes[i] = dictionary.get(i);
+            nodes[i] = END;
+        }
+
+        // Each pass turns the prefixes one letter long into nodes for the prefixes one letter shorter
+        for (int length = WordDictionary.WORD_LENGTH - 1; length >= 0; length--) {
+            int count = 0;
+            int start = 0;
+            while (start < size) {
+                int parent = prefixes[start] >>> WordDictionary.BITS_PER_LETTER;
+                int end = start;
+                int mask = 0;
+                StringBuilder key = new StringBuilder();
+                while (end < size && prefixes[end] >>> WordDictionary.BITS_PER_LETTER == parent) {
+                    mask |= 1 << (prefixes[end] & 31);
+                    key.append((char) (nodes[end] >>> 16)).append((char) nodes[end]);
+                    end++;
+                }
+                key.append((char) (mask >>> 16)).append((char) mask);
+
+                Integer node = seen.get(key.toString());
+                if (node == null) {
+                    if (nodeCount == masks.length) {
+                        masks = Arrays.copyOf(masks, nodeCount * 2);
+                        firsts = Arrays.copyOf(firsts, nodeCount * 2);
+                    }
+                    if (childCount + (end - start) > children.length) {
+                        children = Arrays.copyOf(children, Math.max(children.length * 2, childCount + end - start));
+                    }
+                    masks[nodeCount] = mask;
+                    firsts[nodeCount] = childCount;
+                    System.arraycopy(nodes, start, children, childCount, end - start);
+                    childCount += end - start;
+                    node = nodeCount++;
+                    seen.put(key.toString(), node);
+                }
+                prefixes[count] = parent;
+                nodes[count] = node;
+                count++;
+                start = end;
+            }
+            size = count;
+        }
+
+        int root = size == 0 ? NONE : nodes[0];
+        return new WordDawg(Arrays.copyOf(masks, nodeCount), Arrays.copyOf(firsts, nodeCount),
+                Arrays.copyOf(children, childCount), root);
+    }
+
+    /**
+     * Returns the node for no letters typed
+     *
+     * @return int the root node or NONE if there are no words
+     */
+    public int root() {
+        return root;
+    }
+
+    /**
+     * Follows a letter from a node
+     *
+     * @param node the node for the letters typed so far, NONE is allowed and stays NONE
+     * @param letter the next letter from 0 (A) to 25 (Z)
+     * @return int the node for the letters with this one added or NONE if no word starts with them
+     */
+    public int step(int node, int letter) {
+        if (node < 0) {
+            return NONE;
+        }
+        int mask = masks[node];
+        int bit = 1 << letter;
+        if ((mask & bit) == 0) {
+            return NONE;
+        }
+        // The children are in letter order so the child is after every child with a lower letter
+        return children[firsts[node] + Integer.bitCount(mask & (bit - 1))];
+    }
+
+    /**
+     * Checks if some word starts with the first letters of a packed word
+     *
+     * @param packed the packed letters, only the first length letters are used
+     * @param length number of letters to check
+     * @return boolean true if a word starts with those letters
+     */
+    public boolean isPrefix(int packed, int length) {
+        int node = root;
+        for (int i = 0; i < length; i++) {
+            node = step(node, WordDictionary.letterAt(packed, i));
+        }
+        return node != NONE;
+    }
+
+    /**
+     * Returns the number of nodes in the graph
+     *
+     * @return int the number of nodes
+     */
+    public int nodeCount() {
+        return masks.length;
+    }
+
+    /**
+     * Returns roughly how much memory the graph uses
+     *
+     * @return long the size of the three arrays in bytes
+     */
+    public long memoryBytes() {
+        return 16L * 3 + 4L * (masks.length + firsts.length + children.length);
+    }
+}
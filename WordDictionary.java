@@ -0,0 +1,254 @@
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Dictionary of five letter words where every word is stored as a packed int
+ * Each letter takes 5 bits (A = 0 to Z = 25) with the first letter in the highest bits,
+ * so sorting the packed words also sorts them alphabetically
+ * Lookups are a binary search over a sorted list of ints and never create any objects
+ * The list can be a normal int array or a file that has been mapped into memory
+ */
+public final class WordDictionary {
+
+    /**
+     * Number of letters in every word
+     */
+    public static final int WORD_LENGTH = 5;
+    /**
+     * Number of bits used by each letter
+     */
+    public static final int BITS_PER_LETTER = 5;
+    /**
+     * Value returned by pack when the word can't be packed
+     */
+    public static final int INVALID = -1;
+
+    /**
+     * Sorted list of every packed word with no duplicates
+     */
+    private final IntBuffer words;
+
+    /**
+     * Makes a dictionary from a sorted list of packed words
+     *
+     * @param words sorted packed words with no duplicates
+     */
+    private WordDictionary(IntBuffer words) {
+        this.words = words;
+    }
+
+    /**
+     * Makes a dictionary that reads straight from a sorted list of packed words without copying it
+     *
+     * @param sorted sorted packed words with no duplicates, every int from position 0 to the limit is used
+     * @return WordDictionary the new dictionary
+     * @throws IllegalArgumentException if the words aren't sorted or have duplicates
+     */
+    public static WordDictionary wrap(IntBuffer sorted) {
+        for (int i = 1; i < sorted.limit(); i++) {
+            if (sorted.get(i - 1) >= sorted.get(i)) {
+                throw new IllegalArgumentException("Packed words must be sorted with no duplicates");
+            }
+        }
+        return new WordDictionary(sorted);
+    }
+
+    /**
+     * Makes a dictionary out of a list of words
+     * Words that aren't exactly 5 letters from A to Z are skipped
+     *
+     * @param list the words to add
+     * @return WordDictionary the new dictionary
+     */
+    public static WordDictionary of(Collection<String> list) {
+        int[] packed = new int[list.size()];
+        int size = 0;
+        for (String word : list) {
+            int value = pack(word);
+            if (value != INVALID) {
+                packed[size++] = value;
+            }
+        }
+        return ofPacked(packed, size);
+    }
+
+    /**
+     * Makes a dictionary out of the first size entries of a list of packed words
+     * The list can be in any order and can have duplicates
+     *
+     * @param packed packed words
+     * @param size how many entries of the list to use
+     * @return WordDictionary the new dictionary
+     */
+    public static WordDictionary ofPacked(int[] packed, int size) {
+        int[] sorted = Arrays.copyOf(packed, size);
+        Arrays.sort(sorted);
+
+        // Removes duplicates now that equal words are next to each other
+        int unique = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (unique == 0 || sorted[unique - 1] != sorted[i]) {
+                sorted[unique++] = sorted[i];
+            }
+        }
+        return new WordDictionary(IntBuffer.wrap(Arrays.copyOf(sorted, unique)));
+    }
+
+    /**
+     * Checks if the dictionary has a word
+     *
+     * @param word the 5 letters of the word in upper or lower case
+     * @return boolean true if the word is in the dictionary
+     */
+    public boolean contains(char[] word) {
+        return contains(pack(word));
+    }
+
+    /**
+     * Checks if the dictionary has a packed word
+     *
+     * @param packed the packed word
+     * @return boolean true if the word is in the dictionary
+     */
+    public boolean contains(int packed) {
+        return indexOf(packed) >= 0;
+    }
+
+    /**
+     * Finds the position of a packed word in the dictionary
+     *
+     * @param packed the packed word
+     * @return int the position of the word or -1 if it isn't in the dictionary
+     */
+    public int indexOf(int packed) {
+        if (packed == INVALID) {
+            return -1;
+        }
+        int low = 0;
+        int high = words.limit() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int word = words.get(middle);
+            if (word < packed) {
+                low = middle + 1;
+            } else if (word > packed) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns how many words are in the dictionary
+     *
+     * @return int the number of words
+     */
+    public int size() {
+        return words.limit();
+    }
+
+    /**
+     * Returns the packed word at a position, the words are in alphabetical order
+     *
+     * @param index position of the word
+     * @return int the packed word
+     */
+    public int get(int index) {
+        return words.get(index);
+    }
+
+    /**
+     * Returns the list of packed words in alphabetical order
+     *
+     * @return IntBuffer the words, which can't be changed
+     */
+    public IntBuffer words() {
+        return words.asReadOnlyBuffer();
+    }
+
+    /**
+     * Turns 5 letters into a packed int
+     *
+     * @param word the letters in upper or lower case
+     * @return int the packed word or INVALID if it isn't 5 letters from A to Z
+     */
+    public static int pack(char[] word) {
+        if (word.length != WORD_LENGTH) {
+            return INVALID;
+        }
+        int packed = 0;
+        for (int i = 0; i < WORD_LENGTH; i++) {
+            int letter = letterIndex(word[i]);
+            if (letter < 0) {
+                return INVALID;
+            }
+            packed = (packed << BITS_PER_LETTER) | letter;
+        }
+        return packed;
+    }
+
+    /**
+     * Turns a word into a packed int
+     *
+     * @param word the word in upper or lower case
+     * @return int the packed word or INVALID if it isn't 5 letters from A to Z
+     */
+    public static int pack(CharSequence word) {
+        if (word.length() != WORD_LENGTH) {
+            return INVALID;
+        }
+        int packed = 0;
+        for (int i = 0; i < WORD_LENGTH; i++) {
+            int letter = letterIndex(word.charAt(i));
+            if (letter < 0) {
+                return INVALID;
+            }
+            packed = (packed << BITS_PER_LETTER) | letter;
+        }
+        return packed;
+    }
+
+    /**
+     * Turns a packed int back into an upper case word
+     *
+     * @param packed the packed word
+     * @return String the word
+     */
+    public static String unpack(int packed) {
+        char[] word = new char[WORD_LENGTH];
+        for (int i = 0; i < WORD_LENGTH; i++) {
+            word[i] = (char) ('A' + letterAt(packed, i));
+        }
+        return new String(word);
+    }
+
+    /**
+     * Returns the letter at a position of a packed word
+     *
+     * @param packed the packed word
+     * @param position position of the letter from 0 to 4
+     * @return int the letter from 0 (A) to 25 (Z)
+     */
+    public static int letterAt(int packed, int position) {
+        return (packed >>> ((WORD_LENGTH - 1 - position) * BITS_PER_LETTER)) & 31;
+    }
+
+    /**
+     * Returns the position of a letter in the alphabet
+     *
+     * @param c the letter in upper or lower case
+     * @return int 0 for A up to 25 for Z or -1 if it isn't a letter
+     */
+    public static int letterIndex(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a';
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,349 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Holds the word lists used by the game
+ * The files are only read once per program in the background and the lists can't be changed after that
+ * so every game after the first one just has to pick a random word
+ * If the binary snapshot of the lists is newer than the text files it is mapped into memory and used directly,
+ * otherwise the text files are read and the snapshot is rebuilt for next time
+ */
+public final class WordLists {
+
+    /**
+     * Folder that holds the word files
+     */
+    static final Path DIRECTORY = Paths.get("src", "main", "java");
+    /**
+     * File with every english word, only the 5 letter ones are kept
+     */
+    static final Path ENGLISH_FILE = DIRECTORY.resolve("words.txt");
+    /**
+     * File with every word that can be the answer
+     */
+    static final Path WORDLE_FILE = DIRECTORY.resolve("wordleWords.txt");
+
+    /**
+     * The words being loaded, null until the first time they are needed
+     */
+    private static CompletableFuture<WordLists> loading;
+
+    /**
+     * Dictionary of the english words used to check guesses
+     */
+    private final WordDictionary dictionary;
+    /**
+     * Graph of the english words used to check the letters typed so far
+     */
+    private final WordDawg prefixes;
+    /**
+     * Every word that can be the answer packed into ints in the order of the file
+     */
+    private final IntBuffer answers;
+    /**
+     * Every 5 letter english word in alphabetical order
+     */
+    private final List<String> englishWords;
+    /**
+     * Every word that can be the answer in the order of the file
+     */
+    private final List<String> wordleWords;
+    /**
+     * How long it took to load the words in nanoseconds
+     */
+    private final long loadTime;
+
+    /**
+     * Makes the word lists
+     *
+     * @param dictionary the english words
+     * @param answers every possible answer packed into ints
+     * @param loadTime how long loading took in nanoseconds
+     */
+    private WordLists(WordDictionary dictionary, IntBuffer answers, long loadTime) {
+        this.dictionary = dictionary;
+        this.prefixes = WordDawg.of(dictionary);
+        this.answers = answers;
+        this.englishWords = new PackedList(dictionary.words());
+        this.wordleWords = new PackedList(answers);
+        this.loadTime = loadTime;
+    }
+
+    /**
+     * Starts loading the word lists in the background if that hasn't happened yet
+     *
+     * @return CompletableFuture the word lists once they are loaded
+     */
+    public static synchronized CompletableFuture<WordLists> load() {
+        if (loading == null) {
+            loading = CompletableFuture.supplyAsync(WordLists::read);
+        }
+        return loading;
+    }
+
+    /**
+     * Returns the word lists and waits for them if they are still loading
+     *
+     * @return WordLists the word lists
+     * @throws UncheckedIOException if one of the files couldn't be read
+     */
+    public static WordLists get() {
+        try {
+            return load().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Loads both word lists from the snapshot or from the text files
+     *
+     * @return WordLists the words that were loaded
+     * @throws UncheckedIOException if one of the text files couldn't be read
+     */
+    private static WordLists read() {
+        long start = Metrics.start();
+        if (DictionarySnapshot.isFresh(DictionarySnapshot.FILE, ENGLISH_FILE, WORDLE_FILE)) {
+            DictionarySnapshot snapshot = null;
+            try {
+                snapshot = DictionarySnapshot.map(DictionarySnapshot.FILE);
+            } catch (IOException e) {
+                System.err.println("Couldn't read " + DictionarySnapshot.FILE + ", reading the text files instead: " + e);
+            }
+            if (snapshot != null) {
+                WordLists lists = new WordLists(WordDictionary.wrap(snapshot.englishWords), snapshot.wordleWords,
+                        System.nanoTime() - start);
+                Metrics.record(Metrics.Probe.LOAD_WORDS, start);
+                lists.report("snapshot");
+                return lists;
+            }
+        }
+
+        WordDictionary dictionary = WordDictionary.of(readWords(ENGLISH_FILE, 5));
+        int[] answers = packAll(readWords(WORDLE_FILE, 0));
+        if (answers.length == 0) {
+            throw new IllegalStateException(WORDLE_FILE + " has no words in it");
+        }
+        WordLists lists = new WordLists(dictionary, IntBuffer.wrap(answers), System.nanoTime() - start);
+        Metrics.record(Metrics.Probe.LOAD_WORDS, start);
+        lists.report("text files");
+
+        // Saves the snapshot so the next start doesn't have to read the text files, the game still works if it can't
+        try {
+            DictionarySnapshot.write(DictionarySnapshot.FILE, dictionary, answers);
+        } catch (UncheckedIOException e) {
+            System.err.println(e.getMessage());
+        }
+        return lists;
+    }
+
+    /**
+     * Prints how many words were loaded and how long it took
+     *
+     * @param source where the words were loaded from
+     */
+    private void report(String source) {
+        System.out.printf("Loaded %d english words and %d wordle words from the %s in %.1f ms%n",
+                englishWords.size(), wordleWords.size(), source, loadTime / 1e6);
+    }
+
+    /**
+     * Packs every word in a list
+     *
+     * @param words the words
+     * @return int[] the packed words in the same order
+     * @throws IllegalStateException if one of the words isn't 5 letters from A to Z
+     */
+    static int[] packAll(List<String> words) {
+        int[] packed = new int[words.size()];
+        for (int i = 0; i < packed.length; i++) {
+            packed[i] = WordDictionary.pack(words.get(i));
+            if (packed[i] == WordDictionary.INVALID) {
+                throw new IllegalStateException("\"" + words.get(i) + "\" is not a 5 letter word");
+            }
+        }
+        return packed;
+    }
+
+    /**
+     * Reads every line of a file in one go
+     *
+     * @param file the file to read
+     * @param length only lines of this length are kept, 0 keeps every line that isn't empty
+     * @return List the lines of the file
+     * @throws UncheckedIOException if the file couldn't be read
+     */
+    static List<String> readWords(Path file, int length) {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Couldn't read the word list " + file.toAbsolutePath(), e);
+        }
+
+        // Splits the file into lines and ignores the \r at the end of lines from Windows
+        List<String> words = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i <= bytes.length; i++) {
+            if (i == bytes.length || bytes[i] == '\n') {
+                int end = i;
+                if (end > start && bytes[end - 1] == '\r') {
+                    end--;
+                }
+                int size = end - start;
+                if (size > 0 && (length == 0 || size == length)) {
+                    words.add(new String(bytes, start, size, StandardCharsets.US_ASCII));
+                }
+                start = i + 1;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Returns every 5 letter english word in alphabetical order
+     *
+     * @return List the upper case words, which can't be changed
+     */
+    public List<String> englishWords() {
+        return englishWords;
+    }
+
+    /**
+     * Returns every word that can be the answer
+     *
+     * @return List the upper case words, which can't be changed
+     */
+    public List<String> wordleWords() {
+        return wordleWords;
+    }
+
+    /**
+     * Returns the dictionary used to check if a guess is a real word
+     *
+     * @return WordDictionary the dictionary
+     */
+    public WordDictionary dictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Returns the graph used to check if the letters typed so far start a real word
+     *
+     * @return WordDawg the graph of the english words
+     */
+    public WordDawg prefixes() {
+        return prefixes;
+    }
+
+    /**
+     * Returns how many words can be the answer
+     *
+     * @return int the number of answers
+     */
+    public int answerCount() {
+        return answers.limit();
+    }
+
+    /**
+     * Returns every word that can be the answer
+     *
+     * @return IntBuffer the packed words in the order of wordleWords.txt, which can't be changed
+     */
+    public IntBuffer answers() {
+        return answers.asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns a word that can be the answer
+     *
+     * @param index position of the word in wordleWords.txt
+     * @return int the packed word
+     */
+    public int answer(int index) {
+        return answers.get(index);
+    }
+
+    /**
+     * Returns a number that changes whenever either word list changes
+     * Files built from the word lists store this so they know when they need to be rebuilt
+     *
+     * @return long a 64 bit hash of every packed word in both lists
+     */
+    public long fingerprint() {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < dictionary.size(); i++) {
+            hash = (hash ^ dictionary.get(i)) * 0x100000001b3L;
+        }
+        // Keeps the two lists apart so moving a word from one list to the other changes the hash
+        hash = (hash ^ -1) * 0x100000001b3L;
+        for (int i = 0; i < answers.limit(); i++) {
+            hash = (hash ^ answers.get(i)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Returns how long it took to load the words
+     *
+     * @return long the time in nanoseconds
+     */
+    public long loadTime() {
+        return loadTime;
+    }
+
+    /**
+     * List that turns packed words back into Strings only when they are asked for
+     */
+    private static final class PackedList extends AbstractList<String> implements RandomAccess {
+
+        /**
+         * The packed words
+         */
+        private final IntBuffer words;
+
+        /**
+         * Makes a list of packed words
+         *
+         * @param words the packed words
+         */
+        PackedList(IntBuffer words) {
+            this.words = words;
+        }
+
+        /**
+         * Returns the word at a position
+         *
+         * @param index the position
+         * @return String the upper case word
+         */
+        @Override
+        public String get(int index) {
+            return WordDictionary.unpack(words.get(index));
+        }
+
+        /**
+         * Returns the number of words
+         *
+         * @return int the number of words
+         */
+        @Override
+        public int size() {
+            return words.limit();
+        }
+    }
+}
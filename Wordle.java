@@ -1,14 +1,27 @@
-import java.io.BufferedReader;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+import javafx.animation.Animation;
+import javafx.animation.AnimationTimer;
+import javafx.animation.ParallelTransition;
 import javafx.animation.RotateTransition;
 import javafx.animation.ScaleTransition;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
 import javafx.geometry.Insets;
@@ -25,6 +38,7 @@ import javafx.scene.layout.VBox;
 import javafx.scene.paint.Paint;
 import javafx.scene.shape.Line;
 import javafx.scene.shape.Rectangle;
+import javafx.scene.shape.StrokeType;
 import javafx.scene.text.Font;
 import javafx.scene.text.Text;
 import javafx.stage.Stage;
@@ -42,6 +56,47 @@ import javafx.util.Duration;
  */
 public class Wordle extends Application {
 
+    /**
+     * Colours used by every screen, they are only made once
+     */
+    static final Paint GREEN = Paint.valueOf("Green");
+    static final Paint PURPLE = Paint.valueOf("mediumorchid");
+    static final Paint DARK_GREY = Paint.valueOf("darkgrey");
+    static final Paint GREY = Paint.valueOf("Grey");
+    static final Paint BLACK = Paint.valueOf("Black");
+    static final Paint WHITE = Paint.valueOf("White");
+    static final Paint RED = Paint.valueOf("Red");
+    static final Background DARK_BACKGROUND = Background.fill(Paint.valueOf("#808080"));
+    /**
+     * Most tile animations that can play at once, a key typed past this still shows its letter without one
+     */
+    static final int MAX_ANIMATIONS = 12;
+    /**
+     * Most words suggested for a guess that isn't in the word list
+     */
+    static final int SUGGESTIONS = 3;
+    /**
+     * File the game being played is saved to when the program closes, next to the word lists
+     */
+    static final Path SAVE_FILE = WordLists.DIRECTORY.resolve("game.bin");
+    /**
+     * Number at the start of the save file, the letters GAME
+     */
+    static final int SAVE_MAGIC = 0x47414D45;
+    /**
+     * Version of the save file
+     */
+    static final short SAVE_VERSION = 1;
+
+    /**
+     * Fonts used by every screen, they are made once the screen is ready in start
+     */
+    Font titleFont;
+    Font subtitleFont;
+    Font buttonFont;
+    Font smallFont;
+    Font tileFont;
+
     /**
      * 2D list of the Rectangle object which holds all of the squares
      */
@@ -67,44 +122,60 @@ public class Wordle extends Application {
      */
     Text[] letter;
     /**
-     * ArrayList of every letter of the alphabet
+     * What the user knows about every letter, used to colour the letters above the board
      */
-    ArrayList<String> alphabet;
+    LetterStates letterStates = new LetterStates();
 
     /**
-     * Used to store which row of squares/text the user is on
+     * Used to store the word the user has to guess
+     */
+    String chosenWord;
+    /**
+     * The game being played, holds the letters typed, the guesses and whether the game is over
+     */
+    GameSession session;
+    /**
+     * Button used to restart the game
      */
-    int row;
+    Button restartButton;
     /**
-     * Used to store which collumn of squares/text the user is on
+     * Text shown under the board when the game is won or lost
      */
-    int collumn;
+    Text endText;
 
     /**
-     * Used to store the word the user has to guess
+     * List of every 5 letter english word in the human language
      */
-    String chosenWord;
+    List<String> englishWords;
     /**
-     * Used to see how many letters the user has guessed right each guess
+     * List of every possible word that can be used in the game
      */
-    int greenLetters;
+    List<String> wordleWords;
     /**
-     * Is set to true when the user has guessed the word
+     * Dictionary of every english word packed into ints so checking a guess is fast
      */
-    boolean win;
+    WordDictionary dictionary;
     /**
-     * Button used to restart the game
+     * Graph of every english word used to check the letters as they are typed
      */
-    Button restartButton;
+    WordDawg prefixes;
+    /**
+     * Node in the graph for the letters typed so far in the current row, index 0 is no letters
+     * It is NONE once the letters don't start any word
+     */
+    int[] prefixNodes;
 
     /**
-     * ArrayList of every english word in the human language
+     * The main display
      */
-    ArrayList<String> englishWords;
+    Stage stage;
     /**
-     * ArrayList of every possible word that can be used in the game
+     * Scene for each screen, they are made the first time they are used and reused after that
      */
-    ArrayList<String> wordleWords;
+    Scene gameScene;
+    Scene startScene;
+    Scene helpScene;
+    Scene statsScene;
 
     /**
      * VBox that holds all of the game objects
@@ -114,15 +185,206 @@ public class Wordle extends Application {
      * VBox that holds all of the objects for the start screen
      */
     VBox startPane;
+    /**
+     * Box on the start screen that opens the help screen when it is clicked
+     */
+    StackPane helpBox;
     /**
      * VBox that holds all of the objects for the help screen
      */
     VBox helpPane;
+    /**
+     * VBox that holds all of the objects for the stats screen
+     */
+    VBox statsPane;
+
+    /**
+     * Text that is black normally and white in dark mode
+     */
+    List<Text> themedText = new ArrayList<>();
+    /**
+     * Rectangles used as buttons, they are black normally and white in dark mode
+     */
+    List<Rectangle> themedButtons = new ArrayList<>();
+    /**
+     * Text on top of the buttons, it is white normally and black in dark mode
+     */
+    List<Text> themedButtonText = new ArrayList<>();
+
+    /**
+     * Used to randomly pick the chosen word
+     */
+    Random rand = new Random();
+
+    /**
+     * Answers that still match every guess the user has made
+     */
+    CandidateSet possibleWords;
+    /**
+     * Text under the board that shows how many answers are still possible
+     */
+    Text remainingText;
+
+    /**
+     * Works out the best guess when the user asks for a hint
+     */
+    HintEngine hintEngine;
+    /**
+     * Hints that are already known, made with the hint engine
+     */
+    HintCache hintCache;
+    /**
+     * The hint search that is running, null if the user hasn't asked for a hint
+     */
+    HintEngine.Search hintSearch;
+    /**
+     * Plays on a GameServer when the game is run with -Dwordle.server=address, otherwise null
+     */
+    GameClient client;
+    /**
+     * Thread that talks to the server so the screen never waits for it, requests are sent in the order they are made
+     */
+    ExecutorService clientExecutor;
+    /**
+     * Set to true while a guess is waiting for the server, keys are ignored until it answers
+     */
+    boolean waitingForServer;
+    /**
+     * Text under the board that shows the hint
+     */
+    Text hintText;
+
+    /**
+     * Text that shows the timings of the game when F3 is pressed
+     */
+    Text metricsText;
+
+    /**
+     * Text on the start screen that says to press enter once the words have loaded
+     */
+    Text startText;
+    /**
+     * Set to true once the word lists have loaded and a game can be started
+     */
+    boolean wordsReady = false;
+    /**
+     * Set to true when the game from last time was loaded and hasn't been shown yet
+     */
+    boolean resumed = false;
+    /**
+     * Set to true once the start screen has been drawn for the first time
+     */
+    boolean firstFrameShown = false;
+
+    /**
+     * Every finished game and the totals, null if the stats file couldn't be opened
+     */
+    GameStats stats;
+    /**
+     * Text on the stats screen with the games played, win percentage and streaks
+     */
+    Text statsText;
+    /**
+     * Bars on the stats screen for the number of wins with 1 to 6 guesses
+     */
+    Rectangle[] distributionBars;
+    /**
+     * Number of wins written next to each bar
+     */
+    Text[] distributionText;
+    /**
+     * Text on the stats screen with the last few games
+     */
+    Text lastGamesText;
 
     /**
      * Set to true when the user wants dark mode
      */
     boolean darkMode = false;
+    /**
+     * Set to true when the user wants hard mode, it starts with the next game
+     */
+    boolean hardMode = false;
+    /**
+     * Set to true when the user wants the game to dodge their guesses, it starts with the next game
+     */
+    boolean adversarial = false;
+    /**
+     * Text under the board that says why a guess wasn't accepted
+     */
+    Text messageText;
+    /**
+     * Text next to messageText with the closest words to a guess that isn't in the word list
+     */
+    Text suggestionText;
+    /**
+     * Finds the closest words to a guess that isn't in the word list, built in the background once the words load
+     */
+    CompletableFuture<SpellIndex> spellIndex;
+
+    /**
+     * Keys pressed in the game screen that haven't been handled yet
+     */
+    KeyQueue keyQueue = new KeyQueue();
+    /**
+     * Handles every key in keyQueue once per frame, it only runs while keys are waiting
+     */
+    AnimationTimer inputTimer;
+    /**
+     * One event for every key in a key log, used to give queued keys to enterText and replayed keys to the key handler
+     */
+    KeyEvent[] keyEvents;
+    /**
+     * Times the keys handled this frame were pressed, recorded once the frame has been laid out
+     */
+    long[] handledTimes = new long[64];
+    /**
+     * Number of times in handledTimes
+     */
+    int handledCount;
+    /**
+     * Animation that grows each square when a letter is typed into it, made once and played again every time
+     */
+    ScaleTransition[][] typeAnimations;
+    /**
+     * Animation that spins every square of a row when it is submitted, one for each row
+     */
+    ParallelTransition[] rowAnimations;
+
+    /**
+     * Records every key of the game screen when the game is run with -Dwordle.record=file, otherwise null
+     */
+    KeyLog keyLog;
+
+    /**
+     * Number of boards played at once, 1 is the normal game
+     */
+    int boardCount = 1;
+    /**
+     * How the answer of a new game is picked
+     */
+    AnswerPicker.Tier tier = AnswerPicker.Tier.NORMAL;
+    /**
+     * Picks answers by how hard they are, null until the difficulty table has loaded
+     */
+    AnswerPicker answerPicker;
+    /**
+     * The game being played when there is more than one board
+     */
+    MultiBoardSession multiSession;
+    /**
+     * Canvas that every board is drawn on when there is more than one board
+     */
+    MultiBoardView multiView;
+    /**
+     * Scene and VBox for the screen with more than one board
+     */
+    Scene multiScene;
+    VBox multiPane;
+    /**
+     * Text under the boards that says why a guess wasn't accepted or how the game ended
+     */
+    Text multiText;
 
     /**
      * Function that runs at the start of the program
@@ -137,64 +399,230 @@ public class Wordle extends Application {
         texts = new HBox[6];
         panes = new StackPane[6];
         letter = new Text[26];
-        alphabet = new ArrayList<>();
-
-        row = 0;
-        collumn = 0;
-
-        greenLetters = 0;
-        win = false;
-
-        englishWords = new ArrayList<>();
-        wordleWords = new ArrayList<>();
+        typeAnimations = new ScaleTransition[5][6];
+        rowAnimations = new ParallelTransition[6];
+        keyEvents = keyEvents();
 
         gamePane = new VBox();
         startPane = new VBox();
         helpPane = new VBox();
+        statsPane = new VBox();
+        multiPane = new VBox();
+        distributionBars = new Rectangle[GameSession.ROWS];
+        distributionText = new Text[GameSession.ROWS];
+
+        prefixNodes = new int[GameSession.COLUMNS + 1];
+
+        // The game still works without stats if the file can't be opened
+        try {
+            stats = GameStats.open();
+        } catch (UncheckedIOException e) {
+            System.err.println("Stats won't be saved: " + e.getMessage());
+        }
 
-        // Reads the text file of all english words and adds the 5 letter ones to the list
-        try (BufferedReader br = new BufferedReader(new FileReader("src\\main\\java\\words.txt"))) {
-            for (String line; (line = br.readLine()) != null;) {
-                if (line.length() == 5) {
-                    englishWords.add(line);
-                }
+        // Plays against the word of the day on a server if one was given
+        String server = System.getProperty("wordle.server");
+        if (server != null && !server.isEmpty()) {
+            client = new GameClient(URI.create(server));
+            clientExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "game-client");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        // Records the keys of every local game so they can be replayed with KeyReplay
+        String record = System.getProperty("wordle.record");
+        if (record != null && !record.isEmpty() && client == null) {
+            try {
+                keyLog = KeyLog.create(Path.of(record));
+            } catch (UncheckedIOException e) {
+                System.err.println("Keys won't be recorded: " + e.getMessage());
             }
-        } catch (FileNotFoundException e) {
-        } catch (IOException e) {
+        }
+    }
+
+    /**
+     * Runs on the JavaFX thread once the word lists have loaded in the background
+     * Starts the first game and lets enter start it
+     * 
+     * @param lists the word lists
+     */
+    private void wordsLoaded(WordLists lists) {
+        englishWords = lists.englishWords();
+        wordleWords = lists.wordleWords();
+        dictionary = lists.dictionary();
+        prefixes = lists.prefixes();
+        prefixNodes[0] = prefixes.root();
+        possibleWords = new CandidateSet(lists.answers());
+        // Carries on with the game from last time if there is one
+        resumed = loadGame();
+        if (!resumed) {
+            newGame();
+        }
+
+        wordsReady = true;
+        startText.setText(resumed ? "Click Enter to Continue" : "Click Enter to Start");
+        if (firstFrameShown) {
+            playable();
         }
 
-        // Reads the list of all wordle words and adds them to the list
-        try (BufferedReader br = new BufferedReader(new FileReader("src\\main\\java\\wordleWords.txt"))) {
-            for (String line; (line = br.readLine()) != null;) {
-                wordleWords.add(line);
+        // The closest words are only needed once a guess isn't in the word list so the index is built in the background
+        spellIndex = CompletableFuture.supplyAsync(() -> {
+            int[] answers = new int[lists.answerCount()];
+            for (int i = 0; i < answers.length; i++) {
+                answers[i] = lists.answer(i);
             }
-        } catch (FileNotFoundException e) {
-        } catch (IOException e) {
+            return new SpellIndex(lists.dictionary(), WordDictionary.ofPacked(answers, answers.length));
+        });
+
+        // The difficulty table is only needed for Easy and Hard so it loads after the game is playable
+        // It is made ahead of time with java AnswerPicker, without it every tier picks like Normal
+        CompletableFuture.supplyAsync(() -> AnswerPicker.open(lists)).whenComplete((picker, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                System.err.println("Couldn't load the difficulty table, Easy and Hard pick every word equally: " + error);
+            } else if (picker == null) {
+                System.err.println("No difficulty table, run java AnswerPicker to make one, Easy and Hard pick every word equally");
+            } else {
+                answerPicker = picker;
+            }
+        }));
+
+        // Plays a recorded key log through the game screen now that there are words to play with
+        String replay = System.getProperty("wordle.replay");
+        if (replay != null && !replay.isEmpty()) {
+            Platform.runLater(() -> replayKeys(Path.of(replay)));
+        }
+    }
+
+    /**
+     * Records the time until the game could be played, once the first frame has been drawn and the words are ready
+     * The startup times are only printed when the timings were asked for with -Dwordle.metrics, otherwise they
+     * are in the F3 overlay
+     */
+    private void playable() {
+        Metrics.startup(Metrics.Probe.PLAYABLE);
+        if (Metrics.requested()) {
+            System.out.println(Metrics.startupSummary());
+        }
+    }
+
+    /**
+     * Picks a new word and starts a new game without touching the screen
+     */
+    private void newGame() {
+        // The daily game is seeded by the day so it is the same word all day
+        newGame(tier == AnswerPicker.Tier.DAILY ? AnswerPicker.dailySeed(LocalDate.now()) : rand.nextLong());
+    }
+
+    /**
+     * Starts a new game without touching the screen, the word is picked by a seed so a recorded game can be
+     * played again with the same word
+     * 
+     * @param seed the seed that picks the word
+     */
+    private void newGame(long seed) {
+        newGame(seed, WordDictionary.INVALID);
+    }
+
+    /**
+     * Starts a new game without touching the screen, on a word that is already known or on the word a seed picks
+     * A replay passes the word that was played since Easy and Hard picks also depend on the difficulty table
+     * 
+     * @param seed the seed that picks the word
+     * @param answer the packed word to play, or WordDictionary.INVALID to let the seed pick it
+     */
+    private void newGame(long seed, int answer) {
+        // Stops looking for a hint for the last game
+        if (hintSearch != null) {
+            hintSearch.cancel();
+            hintSearch = null;
+        }
+
+        possibleWords.reset();
+        // The server picks the word so it is only known once the game is lost
+        if (client != null) {
+            chosenWord = null;
+            session = GameSession.remote(dictionary);
+            session.setHardMode(hardMode);
+            waitingForServer = false;
+            // The game is started on the server in the background, guesses wait behind it on the same thread
+            CompletableFuture.runAsync(client::newGame, clientExecutor).whenComplete((ignored, error) -> {
+                if (error != null) {
+                    Platform.runLater(() -> serverFailed(error));
+                }
+            });
+            return;
+        }
+
+        // An adversarial game only decides the word once it is over
+        if (adversarial) {
+            chosenWord = null;
+            session = GameSession.adversarial(dictionary, WordLists.get().answers());
+            session.setHardMode(hardMode);
+            if (keyLog != null) {
+                keyLog.startGame(seed, WordDictionary.INVALID, hardMode, true, AnswerPicker.Tier.NORMAL);
+            }
+            return;
         }
 
-        // Randomly chooses a word from the list to be the chosen word
-        Random rand = new Random();
-        chosenWord = wordleWords.get(rand.nextInt(wordleWords.size()));
+        // Randomly chooses a word from the list to be the chosen word, Easy and Hard pick every word equally
+        // until the difficulty table has loaded
+        AnswerPicker.Tier picked = tier.weighted() && answerPicker == null ? AnswerPicker.Tier.NORMAL : tier;
+        if (answer == WordDictionary.INVALID) {
+            int index = picked.weighted() ? answerPicker.pick(picked, seed) : KeyLog.pick(seed, wordleWords.size());
+            answer = WordDictionary.pack(wordleWords.get(index).toUpperCase());
+        }
+        chosenWord = WordDictionary.unpack(answer);
+        session = new GameSession(dictionary, answer);
+        session.setHardMode(hardMode);
+        if (keyLog != null) {
+            keyLog.startGame(seed, session.answer(), hardMode, false, picked);
+        }
         System.out.println(chosenWord);
     }
 
     /**
      * Function that call all other functions and displays everything on the screen
+     * Only the start screen is built here so it can be drawn as soon as possible, the word lists keep loading
+     * in the background and every other screen is built the first time it is used
      * 
      * @param stage the main display where everything is shown
      */
     @Override
     public void start(Stage stage) {
-        // Initializes the start screen
-        startScreen(stage, startPane);
+        this.stage = stage;
 
-        // Makes a new Scene object for each screen
-        Scene gameScene = new Scene(gamePane, 500, 600);
+        // Makes the fonts once now that JavaFX is running
+        titleFont = new Font("Times New Roman", 40);
+        subtitleFont = new Font("Times New Roman", 30);
+        buttonFont = new Font("Times New Roman", 20);
+        smallFont = new Font("Times New Roman", 15);
+        tileFont = new Font("Times New Roman", 32);
 
-        Scene startScene = new Scene(startPane, 500, 600);
+        // Builds the start screen and measures how long it takes
+        long time = Metrics.start();
+        startScreen(startPane);
+        Metrics.record(Metrics.Probe.START_SCREEN, time);
+        startScene = new Scene(startPane, 500, 600);
+        applyTheme();
 
-        Scene helpScene = new Scene(helpPane, 500, 600);
+        // Records the time to the first frame once the start screen has been laid out to be drawn
+        startScene.addPostLayoutPulseListener(new Runnable() {
 
+            /**
+             * Runs after the layout of every frame until the first one has been seen
+             */
+            @Override
+            public void run() {
+                startScene.removePostLayoutPulseListener(this);
+                Metrics.startup(Metrics.Probe.FIRST_FRAME);
+                firstFrameShown = true;
+                if (wordsReady) {
+                    playable();
+                }
+            }
+        });
 
         // Sets the stage to be the start screen and makes sure it isn't resizeable
         stage.setScene(startScene);
@@ -202,28 +630,15 @@ public class Wordle extends Application {
         stage.setResizable(false);
         stage.setTitle("Wordle");
 
-        // Handles the logic for when a key is pressed in the game screen
-        gameScene.setOnKeyPressed(new EventHandler<KeyEvent>() {
-
-            /**
-             * Runs when a key is pressed
-             * 
-             * @param event the key that was pressed
-             */
-            @Override
-            public void handle(KeyEvent event) {
-                // Runs the function that handles inputting text
-                enterText(event, stage, gamePane);
-                // If the escape key is pressed then change the screen to the start screen
-                if(event.getCode() == KeyCode.ESCAPE) {
-                    // Resets all variables and initializes the screen
-                    init();
-                    startScreen(stage, startPane);
-                    startScene.setRoot(startPane);
-                    stage.setScene(startScene);
-                }
+        // The word lists started loading in main, the game starts once they are ready
+        WordLists.load().whenComplete((lists, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                startText.setText("Couldn't load the words");
+                System.err.println("Couldn't load the words: " + error);
+            } else {
+                wordsLoaded(lists);
             }
-        });
+        }));
 
         // Handles the logic for when a key is pressed in the start screen
         startScene.setOnKeyPressed(new EventHandler<KeyEvent>() {
@@ -235,13 +650,26 @@ public class Wordle extends Application {
              */
             @Override
             public void handle(KeyEvent event) {
-                // Changes the screen to the game screen
-                 if(event.getCode() == KeyCode.ENTER) {
-                    init();
-                    gameScreen(stage, gamePane);
-                    gameScene.setRoot(gamePane);
-                    stage.setScene(gameScene);
-                 }   
+                // Starts a new game and changes the screen to the game screen, once the words have loaded
+                 if(event.getCode() == KeyCode.ENTER && wordsReady) {
+                    if (boardCount > 1) {
+                        Scene scene = multiScene();
+                        newMultiGame();
+                        stage.setScene(scene);
+                        stage.sizeToScene();
+                    } else if (resumed) {
+                        // The game from last time is shown the first time instead of a new one
+                        resumed = false;
+                        startText.setText("Click Enter to Start");
+                        Scene scene = gameScene();
+                        showSession();
+                        stage.setScene(scene);
+                    } else {
+                        Scene scene = gameScene();
+                        resetGame();
+                        stage.setScene(scene);
+                    }
+                 }
             }
 
         });
@@ -257,15 +685,95 @@ public class Wordle extends Application {
             @Override
             public void handle(MouseEvent event) {
                 // If the mouse was clicked in the box that is being used as a button then go to the help screen
-                if(event.getX() > 152 && event.getX() < 347 && event.getY() > 418 && event.getY() < 462) {
-                    init();
-                    helpScreen(stage, helpPane);
-                    helpScene.setRoot(helpPane);
-                    stage.setScene(helpScene);
-                }             
+                // The box is found on the screen each time so it still works when the start screen changes
+                if(helpBox.localToScene(helpBox.getBoundsInLocal()).contains(event.getSceneX(), event.getSceneY())) {
+                    stage.setScene(helpScene());
+                }
+            }
+
+        });
+    }
+
+    /**
+     * Returns the game screen, building it the first time
+     * 
+     * @return Scene the game screen
+     */
+    private Scene gameScene() {
+        if (gameScene != null) {
+            return gameScene;
+        }
+        long time = Metrics.start();
+        gameScreen(gamePane);
+        gameScene = new Scene(gamePane, 500, 600);
+
+        // Handles the logic for when a key is pressed in the game screen
+        gameScene.setOnKeyPressed(new EventHandler<KeyEvent>() {
+
+            /**
+             * Runs when a key is pressed
+             * 
+             * @param event the key that was pressed
+             */
+            @Override
+            public void handle(KeyEvent event) {
+                // Keys for the game wait in the queue until the next frame so they are handled in order
+                int key = logKey(event.getCode());
+                if (key >= 0) {
+                    keyQueue.add(key, Metrics.start());
+                    inputTimer.start();
+                }
+                // F3 shows or hides the timings
+                if(event.getCode() == KeyCode.F3) {
+                    metricsText.setVisible(!metricsText.isVisible());
+                    metricsText.setText(Metrics.summary());
+                }
+                // If the escape key is pressed then change the screen to the start screen
+                if(event.getCode() == KeyCode.ESCAPE) {
+                    // Keys still waiting were pressed for this screen so they are thrown away with it
+                    keyQueue.clear();
+                    stage.setScene(startScene);
+                }
             }
+        });
 
+        inputTimer = new AnimationTimer() {
+
+            /**
+             * Runs once per frame while keys are waiting, handles all of them and then waits for the next key
+             * 
+             * @param now the time of the frame
+             */
+            @Override
+            public void handle(long now) {
+                handleKeys();
+                stop();
+            }
+        };
+        // Records how long each key handled this frame waited once the frame has been laid out to be drawn
+        gameScene.addPostLayoutPulseListener(() -> {
+            for (int i = 0; i < handledCount; i++) {
+                Metrics.record(Metrics.Probe.INPUT_TO_FRAME, handledTimes[i]);
+            }
+            handledCount = 0;
         });
+        applyTheme();
+        Metrics.record(Metrics.Probe.GAME_SCREEN, time);
+        return gameScene;
+    }
+
+    /**
+     * Returns the help screen, building it the first time
+     * 
+     * @return Scene the help screen
+     */
+    private Scene helpScene() {
+        if (helpScene != null) {
+            return helpScene;
+        }
+        long time = Metrics.start();
+        helpScreen(helpPane);
+        helpScene = new Scene(helpPane, 500, 600);
 
         // Handles the logic for when the mouse is clicked
         helpScene.setOnMouseClicked(new EventHandler<MouseEvent>() {
@@ -279,51 +787,93 @@ public class Wordle extends Application {
             public void handle(MouseEvent event) {
                 // If the mouse was clicked in the box then go to the start screen
                 if(event.getX() > 154 && event.getX() < 342 && event.getY() > 468 && event.getY() < 512) {
-                    init();
-                    startScreen(stage, startPane);
-                    startScene.setRoot(startPane);
                     stage.setScene(startScene);
                 }
             }
 
         });
+        applyTheme();
+        Metrics.record(Metrics.Probe.HELP_SCREEN, time);
+        return helpScene;
     }
 
     /**
-     * Initializes the help screen
+     * Returns the stats screen, building it the first time
      * 
-     * @param stage the stage used to display everything
-     * @param rootPane the VBox that holds all of the objects
+     * @return Scene the stats screen
      */
-    private void helpScreen(Stage stage, VBox rootPane) {
-        // Creates some text and boxes
-        if(darkMode) {
-            rootPane.setBackground(Background.fill(Paint.valueOf("#808080")));
+    private Scene statsScene() {
+        if (statsScene != null) {
+            return statsScene;
         }
-        Text helpText = new Text("Instructions");
-        helpText.setFont(new Font("Times new Roman", 40));
-        if(darkMode) {
-            helpText.setFill(Paint.valueOf("White"));
+        long time = Metrics.start();
+        statsScreen(statsPane);
+        statsScene = new Scene(statsPane, 500, 600);
+        applyTheme();
+        Metrics.record(Metrics.Probe.STATS_SCREEN, time);
+        return statsScene;
+    }
+
+    /**
+     * Returns the screen for playing several boards, building it the first time
+     * 
+     * @return Scene the screen with every board
+     */
+    private Scene multiScene() {
+        if (multiScene != null) {
+            return multiScene;
         }
+        multiBoardScreen(multiPane);
+        // Several boards need a bigger window, it goes back to the normal size on the start screen
+        multiScene = new Scene(multiPane, 900, 700);
 
-        rootPane.setAlignment(Pos.CENTER);
-        rootPane.getChildren().add(helpText);
+        // Handles the logic for when a key is pressed while playing several boards
+        multiScene.setOnKeyPressed(new EventHandler<KeyEvent>() {
 
-        Rectangle backButton = new Rectangle();
-        backButton.setWidth(200);
+            /**
+             * Runs when a key is pressed
+             * 
+             * @param event the key that was pressed
+             */
+            @Override
+            public void handle(KeyEvent event) {
+                long time = Metrics.start();
+                enterMultiText(event);
+                Metrics.record(Metrics.Probe.KEY_PRESS, time);
+                if(event.getCode() == KeyCode.ESCAPE) {
+                    stage.setScene(startScene);
+                    stage.sizeToScene();
+                }
+            }
+        });
+        applyTheme();
+        return multiScene;
+    }
+
+    /**
+     * Initializes the help screen
+     * 
+     * @param rootPane the VBox that holds all of the objects
+     */
+    private void helpScreen(VBox rootPane) {
+        // Creates some text and boxes
+        Text helpText = new Text("Instructions");
+        helpText.setFont(titleFont);
+        themedText.add(helpText);
+
+        rootPane.setAlignment(Pos.CENTER);
+        rootPane.getChildren().add(helpText);
+
+        Rectangle backButton = new Rectangle();
+        backButton.setWidth(200);
         backButton.setHeight(50);
         backButton.setArcWidth(20);
         backButton.setArcHeight(20);
-        if(darkMode) {
-            backButton.setFill(Paint.valueOf("White"));
-        }
-    
+        themedButtons.add(backButton);
+
         Text backText = new Text("Click here to go Back");
-        backText.setFont(new Font("Times New Roman", 20));
-        backText.setFill(Paint.valueOf("White"));
-        if(darkMode) {
-            backText.setFill(Paint.valueOf("Black"));
-        }
+        backText.setFont(buttonFont);
+        themedButtonText.add(backText);
 
         // Creates a set of text and loops through it to make it a certain font and add it to the screen
         Text[] instructions = new Text[8];
@@ -338,10 +888,8 @@ public class Wordle extends Application {
         instructions[7] = new Text("Good Luck and Hope You Have Fun!!!");
 
         for(int i = 0; i < instructions.length; i++) {
-            instructions[i].setFont(new Font("Times new Roman", 15));
-            if(darkMode) {
-                instructions[i].setFill(Paint.valueOf("White"));
-            }
+            instructions[i].setFont(smallFont);
+            themedText.add(instructions[i]);
             rootPane.getChildren().add(instructions[i]);
         }
 
@@ -354,32 +902,115 @@ public class Wordle extends Application {
         rootPane.getChildren().add(backPane);
     }
 
+    /**
+     * Initializes the stats screen, the numbers are filled in by updateStats every time it is shown
+     * 
+     * @param rootPane the VBox that holds all of the objects
+     */
+    private void statsScreen(VBox rootPane) {
+        rootPane.setAlignment(Pos.CENTER);
+        rootPane.setSpacing(10);
+
+        Text titleText = new Text("Statistics");
+        titleText.setFont(titleFont);
+        themedText.add(titleText);
+        rootPane.getChildren().add(titleText);
+
+        statsText = new Text("");
+        statsText.setFont(buttonFont);
+        themedText.add(statsText);
+        rootPane.getChildren().add(statsText);
+
+        Text distributionTitle = new Text("Guess Distribution");
+        distributionTitle.setFont(buttonFont);
+        themedText.add(distributionTitle);
+        rootPane.getChildren().add(distributionTitle);
+
+        // One row for each number of guesses with a bar as long as the number of wins
+        for (int i = 0; i < distributionBars.length; i++) {
+            Text guessText = new Text(String.valueOf(i + 1));
+            guessText.setFont(smallFont);
+            themedText.add(guessText);
+
+            distributionBars[i] = new Rectangle(0, 20, GREEN);
+            distributionText[i] = new Text("");
+            distributionText[i].setFont(smallFont);
+            themedText.add(distributionText[i]);
+
+            HBox row = new HBox(guessText, distributionBars[i], distributionText[i]);
+            row.setAlignment(Pos.CENTER_LEFT);
+            row.setSpacing(10);
+            row.setTranslateX(100);
+            rootPane.getChildren().add(row);
+        }
+
+        lastGamesText = new Text("");
+        lastGamesText.setFont(smallFont);
+        themedText.add(lastGamesText);
+        rootPane.getChildren().add(lastGamesText);
+
+        Button backButton = new Button("Back");
+        backButton.setFocusTraversable(false);
+        backButton.setOnAction(new EventHandler<ActionEvent>() {
+
+            /**
+             * Runs when the back button is clicked
+             * 
+             * @param event the type of action event
+             */
+            @Override
+            public void handle(ActionEvent event) {
+                stage.setScene(startScene);
+            }
+
+        });
+        rootPane.getChildren().add(backButton);
+    }
+
+    /**
+     * Fills in the stats screen with the latest totals
+     */
+    private void updateStats() {
+        if (stats == null) {
+            statsText.setText("Stats aren't available");
+            return;
+        }
+        statsText.setText("Played " + stats.played() + "   Win % " + stats.winPercent() + "   Streak " + stats.streak()
+                + "   Best " + stats.maxStreak());
+
+        // The longest bar is 250 pixels wide
+        int most = 1;
+        for (int i = 1; i <= GameSession.ROWS; i++) {
+            most = Math.max(most, stats.wonIn(i));
+        }
+        for (int i = 0; i < distributionBars.length; i++) {
+            int wins = stats.wonIn(i + 1);
+            distributionBars[i].setWidth(250.0 * wins / most);
+            distributionText[i].setText(String.valueOf(wins));
+        }
+
+        List<String> lastGames = stats.lastGames(5);
+        lastGamesText.setText(lastGames.isEmpty() ? "" : "Last games: " + String.join(", ", lastGames));
+    }
+
     /**
      * Initializes the start screen
      * 
-     * @param stage the main display that shows everything
      * @param rootPane the VBox that holds everything
      */
-    private void startScreen(Stage stage, VBox rootPane) {
+    private void startScreen(VBox rootPane) {
         // Creates all of the text and buttons
         rootPane.setAlignment(Pos.CENTER);
 
-        if(darkMode) {
-            rootPane.setBackground(Background.fill(Paint.valueOf("#808080")));
-        }
-
         Text wordleText = new Text("Wordle");
-        wordleText.setFont(new Font("Times New Roman", 40));
-        if(darkMode) {
-            wordleText.setFill(Paint.valueOf("White"));
-        }
+        wordleText.setFont(titleFont);
+        themedText.add(wordleText);
         rootPane.getChildren().add(wordleText);
 
-        Text startText = new Text("Click Enter to Start");
-        startText.setFont(new Font("Times new Roman", 30));
-        if(darkMode) {
-            startText.setFill(Paint.valueOf("White"));
-        }
+        // Enter only starts a game once the word lists have loaded
+        startText = new Text(wordsReady ? "Click Enter to Start" : "Loading words...");
+        startText.setFont(subtitleFont);
+        themedText.add(startText);
         rootPane.getChildren().add(startText);
 
 
@@ -388,16 +1019,11 @@ public class Wordle extends Application {
         helpButton.setHeight(50);
         helpButton.setArcWidth(20);
         helpButton.setArcHeight(20);
-        if(darkMode) {
-            helpButton.setFill(Paint.valueOf("White"));
-        }
-    
+        themedButtons.add(helpButton);
+
         Text helpText = new Text("Click here for Help");
-        helpText.setFont(new Font("Times New Roman", 20));
-        helpText.setFill(Paint.valueOf("White"));
-        if(darkMode) {
-            helpText.setFill(Paint.valueOf("Black"));
-        }
+        helpText.setFont(buttonFont);
+        themedButtonText.add(helpText);
 
         StackPane helpPane = new StackPane();
         helpPane.setAlignment(Pos.CENTER);
@@ -405,6 +1031,7 @@ public class Wordle extends Application {
         helpPane.setTranslateY(100);
         helpPane.translateYProperty();
         rootPane.getChildren().add(helpPane);
+        helpBox = helpPane;
 
         Button darkModeButton = new Button("Dark Mode");
         // Makes sure clicking the enter key starts the game and doesn't click the button
@@ -419,46 +1046,138 @@ public class Wordle extends Application {
             @Override
             public void handle(ActionEvent event) {
                 darkMode = !darkMode;
-                init();
-                start(stage);         
+                applyTheme();
+            }
+
+        });
+
+        Button hardModeButton = new Button("Hard Mode: Off");
+        hardModeButton.setFocusTraversable(false);
+        hardModeButton.setOnAction(new EventHandler<ActionEvent>() {
+
+            /**
+             * Runs when the hard mode button is clicked
+             * 
+             * @param event the type of action event
+             */
+            @Override
+            public void handle(ActionEvent event) {
+                hardMode = !hardMode;
+                hardModeButton.setText(hardMode ? "Hard Mode: On" : "Hard Mode: Off");
+            }
+
+        });
+
+        Button adversarialButton = new Button("Adversarial: Off");
+        adversarialButton.setFocusTraversable(false);
+        adversarialButton.setOnAction(new EventHandler<ActionEvent>() {
+
+            /**
+             * Runs when the adversarial button is clicked
+             * 
+             * @param event the type of action event
+             */
+            @Override
+            public void handle(ActionEvent event) {
+                adversarial = !adversarial;
+                adversarialButton.setText(adversarial ? "Adversarial: On" : "Adversarial: Off");
+            }
+
+        });
+
+        Button statsButton = new Button("Stats");
+        statsButton.setFocusTraversable(false);
+        statsButton.setOnAction(new EventHandler<ActionEvent>() {
+
+            /**
+             * Runs when the stats button is clicked
+             * 
+             * @param event the type of action event
+             */
+            @Override
+            public void handle(ActionEvent event) {
+                Scene scene = statsScene();
+                updateStats();
+                stage.setScene(scene);
+            }
+
+        });
+
+        Button boardsButton = new Button("Boards: 1");
+        boardsButton.setFocusTraversable(false);
+        boardsButton.setOnAction(new EventHandler<ActionEvent>() {
+
+            /**
+             * Runs when the boards button is clicked, goes from 1 board to 4, 8, 16 and back to 1
+             * 
+             * @param event the type of action event
+             */
+            @Override
+            public void handle(ActionEvent event) {
+                int next = 1;
+                for (int count : MultiBoardSession.BOARD_COUNTS) {
+                    if (count > boardCount) {
+                        next = count;
+                        break;
+                    }
+                }
+                boardCount = next;
+                boardsButton.setText("Boards: " + boardCount);
+            }
+
+        });
+
+        Button tierButton = new Button("Words: " + tier.label());
+        tierButton.setFocusTraversable(false);
+        tierButton.setOnAction(new EventHandler<ActionEvent>() {
+
+            /**
+             * Runs when the words button is clicked, goes from Normal to Easy, Hard, Daily and back to Normal
+             * 
+             * @param event the type of action event
+             */
+            @Override
+            public void handle(ActionEvent event) {
+                AnswerPicker.Tier[] tiers = AnswerPicker.Tier.values();
+                tier = tiers[(tier.ordinal() + 1) % tiers.length];
+                tierButton.setText("Words: " + tier.label());
             }
-            
+
         });
-        rootPane.getChildren().add(darkModeButton);
+
+        HBox optionsBox = new HBox(darkModeButton, hardModeButton, adversarialButton, statsButton);
+        optionsBox.setAlignment(Pos.CENTER);
+        optionsBox.setSpacing(10);
+        rootPane.getChildren().add(optionsBox);
+
+        // The buttons that change which words are played go on a second line so every button fits
+        HBox gameBox = new HBox(tierButton, boardsButton);
+        gameBox.setAlignment(Pos.CENTER);
+        gameBox.setSpacing(10);
+        rootPane.getChildren().add(gameBox);
     }
 
     /**
      * Initializes the game screen
      * 
-     * @param stage the main display
      * @param rootPane the VBox that holds every object
      */
-    private void gameScreen(Stage stage, VBox rootPane) {
+    private void gameScreen(VBox rootPane) {
         rootPane.setAlignment(Pos.CENTER);
-        if(darkMode) {
-            rootPane.setBackground(Background.fill(Paint.valueOf("#808080")));
-        }
-        
 
         Text wordleText = new Text("Wordle");
-        wordleText.setFont(new Font("Times New Roman", 40));
+        wordleText.setFont(titleFont);
         rootPane.getChildren().add(wordleText);
 
-        // Loops through every letter of the alphabet and adds it to a list of letters and a list of text
-        // The list of letters is used to easily find the position of each letter since the arraylist has a built-in function
+        // Loops through every letter of the alphabet and adds it to a list of text, index 0 is A
         int increment = 0;
         HBox letters = new HBox();
         letters.setSpacing(5);
         letters.setAlignment(Pos.CENTER);
         for (char temp = 'A'; temp <= 'Z'; temp++) {
-            alphabet.add(String.valueOf(temp));
             letter[increment] = new Text();
             letter[increment].setText(String.valueOf(temp));
-            letter[increment].setFont(new Font("Times New Roman", 15));
-            letter[increment].setFill(Paint.valueOf("Black"));
-            if(darkMode) {
-                letter[increment].setFill(Paint.valueOf("White"));
-            }
+            letter[increment].setFont(smallFont);
 
             letters.getChildren().add(letter[increment]);
             increment++;
@@ -487,14 +1206,37 @@ public class Wordle extends Application {
                 square[x][y] = new Rectangle();
                 square[x][y].setWidth(50);
                 square[x][y].setHeight(50);
-                square[x][y].setFill(Paint.valueOf("Grey"));
-                if(darkMode) {
-                    square[x][y].setFill(Paint.valueOf("Black"));
-                }
+                // The outline is drawn inside the square so it doesn't move the other squares
+                square[x][y].setStrokeType(StrokeType.INSIDE);
+                square[x][y].setStrokeWidth(3);
                 squares[y].getChildren().add(square[x][y]);
             }
         }
 
+        // Makes the animations for every square once so typing never has to make new ones
+        // Credit to: https://www.tutorialspoint.com/javafx/javafx_animations.htm
+        for (int y = 0; y < 6; y++) {
+            rowAnimations[y] = new ParallelTransition();
+            for (int x = 0; x < 5; x++) {
+                // The scale goes from and back to 1 so starting it again half way through can't leave it bigger
+                typeAnimations[x][y] = new ScaleTransition(Duration.millis(100), square[x][y]);
+                typeAnimations[x][y].setFromX(1);
+                typeAnimations[x][y].setFromY(1);
+                typeAnimations[x][y].setToX(1.5);
+                typeAnimations[x][y].setToY(1.5);
+                typeAnimations[x][y].setCycleCount(2);
+                typeAnimations[x][y].setAutoReverse(true);
+                typeAnimations[x][y].setOnFinished(done -> Metrics.animationFinished());
+
+                RotateTransition rotate = new RotateTransition(Duration.millis(100), square[x][y]);
+                rotate.setFromAngle(0);
+                rotate.setToAngle(360);
+                rotate.setCycleCount(2);
+                rowAnimations[y].getChildren().add(rotate);
+            }
+            rowAnimations[y].setOnFinished(done -> Metrics.animationFinished());
+        }
+
         // Creates new HBoxes for each position
         for (int i = 0; i < texts.length; i++) {
             texts[i] = new HBox();
@@ -506,8 +1248,8 @@ public class Wordle extends Application {
         for (int x = 0; x < 5; x++) {
             for (int y = 0; y < 6; y++) {
                 text[x][y] = new Text("");
-                text[x][y].setFill(Paint.valueOf("White"));
-                text[x][y].setFont(new Font("Times New Roman", 32));
+                text[x][y].setFill(WHITE);
+                text[x][y].setFont(tileFont);
                 text[x][y].setTranslateX(10 + (x * 30));
                 text[x][y].translateXProperty();
 
@@ -532,196 +1274,797 @@ public class Wordle extends Application {
         bottomLine.setEndX(500);
         bottomLine.setEndY(570);
         rootPane.getChildren().add(bottomLine);
+
+        // Shows how many words the answer could still be
+        remainingText = new Text("");
+        remainingText.setFont(buttonFont);
+        themedText.add(remainingText);
+        rootPane.getChildren().add(remainingText);
+
+        // Says why the last guess wasn't accepted
+        messageText = new Text("");
+        messageText.setFont(buttonFont);
+        messageText.setFill(RED);
+
+        // Suggests words on the same line so the board doesn't move when they appear
+        suggestionText = new Text("");
+        suggestionText.setFont(smallFont);
+        themedText.add(suggestionText);
+        HBox messageBox = new HBox(messageText, suggestionText);
+        messageBox.setAlignment(Pos.CENTER);
+        messageBox.setSpacing(10);
+        rootPane.getChildren().add(messageBox);
+
+        // Adds a button that suggests the guess that tells the user the most about the word
+        Button hintButton = new Button("Hint");
+        // Makes sure clicking the enter key submits the word and doesn't click the button
+        hintButton.setFocusTraversable(false);
+        hintButton.setOnAction(new EventHandler<ActionEvent>() {
+
+            /**
+             * Runs when the hint button is clicked
+             * 
+             * @param event the type of action event
+             */
+            @Override
+            public void handle(ActionEvent event) {
+                showHint();
+            }
+
+        });
+        hintText = new Text("");
+        hintText.setFont(buttonFont);
+        themedText.add(hintText);
+        HBox hintBox = new HBox(hintButton, hintText);
+        hintBox.setAlignment(Pos.CENTER);
+        hintBox.setSpacing(10);
+        rootPane.getChildren().add(hintBox);
+
+        // The win or lose text and the restart button are hidden until the game ends
+        endText = new Text("");
+        endText.setFont(titleFont);
+        restartButton = new Button("Restart");
+        restartButton.setOnAction(new EventHandler<ActionEvent>() {
+
+            /**
+             * Runs when the button has been clicked
+             * 
+             * @param event the event that occured with the button
+             */
+            @Override
+            public void handle(ActionEvent event) {
+                restartApplication();
+            }
+
+        });
+        // Hidden objects don't take up any space
+        endText.managedProperty().bind(endText.visibleProperty());
+        restartButton.managedProperty().bind(restartButton.visibleProperty());
+        rootPane.getChildren().addAll(endText, restartButton);
+
+        // Timings shown in the top corner when F3 is pressed, it sits on top of everything else
+        metricsText = new Text("");
+        metricsText.setFont(Font.font("Monospaced", 11));
+        metricsText.setManaged(false);
+        metricsText.relocate(5, 5);
+        metricsText.setVisible(false);
+        rootPane.getChildren().add(metricsText);
+
+        clearBoard();
     }
 
     /**
-     * Code used to display text typed by the user
+     * Initializes the screen used to play several boards at once
      * 
-     * @param event the key pressed
-     * @param stage the main display
      * @param rootPane the VBox that holds every object
      */
-    private void enterText(KeyEvent event, Stage stage, VBox rootPane) {
-        // Stops inputting text if the user has won
-        if (!win) {
-            // Checks if the user has inputted a letter to make it easier to catch errors
-            if (event.getCode().isLetterKey()) {
-                try {
-                    // The current text box is set to that letter
-                    if (text[collumn][row].getText().equals("")) {
-                        text[collumn][row].setText(event.getCode().toString());
-                        // Credit to: https://www.tutorialspoint.com/javafx/javafx_animations.htm
-                        ScaleTransition transition = new ScaleTransition();
-                        transition.setDuration(Duration.millis(100));
-                        transition.setNode(square[collumn][row]);
-                        transition.setByX(0.5);
-                        transition.setByY(0.5);
-                        transition.setCycleCount(2);
-                        transition.setAutoReverse(true);
-                        transition.play();
-                    }
+    private void multiBoardScreen(VBox rootPane) {
+        rootPane.setAlignment(Pos.CENTER);
+        rootPane.setSpacing(10);
 
-                    // Increments collumn after each text to transition across
-                    if (collumn < 5) {
-                        collumn++;
-                    }
-                } catch (IndexOutOfBoundsException e) {
+        // Every board is drawn on one canvas so 16 boards don't need thousands of nodes
+        multiView = new MultiBoardView(860, 620);
+        rootPane.getChildren().add(multiView.canvas());
+
+        multiText = new Text();
+        multiText.setFont(smallFont);
+        themedText.add(multiText);
+        rootPane.getChildren().add(multiText);
+    }
+
+    /**
+     * Picks a different answer for every board and starts a game with several boards
+     */
+    private void newMultiGame() {
+        IntBuffer answers = WordLists.get().answers();
+        int[] chosen = new int[Math.min(boardCount, answers.limit())];
+        for (int i = 0; i < chosen.length; i++) {
+            int answer = answers.get(rand.nextInt(answers.limit()));
+            for (int j = 0; j < i; j++) {
+                // Picks again if another board already has this word
+                if (chosen[j] == answer) {
+                    answer = answers.get(rand.nextInt(answers.limit()));
+                    j = -1;
                 }
             }
-            // If enter is clicked and the word typed exists in the english language
-            if (event.getCode() == KeyCode.ENTER && collumn >= 5 && englishWords.contains(wordTyped(collumn, row))) {
-                // Play a small animation of rotating the squares
-                for(int i = 0; i < 5; i++) {
-                    RotateTransition rotate = new RotateTransition();
-                    rotate.setNode(square[i][row]);
-                    rotate.setDuration(Duration.millis(100));
-                    rotate.setCycleCount(2);
-                    rotate.setByAngle(360);
-                    rotate.play();
+            chosen[i] = answer;
+        }
+        multiSession = new MultiBoardSession(dictionary, chosen);
+        multiView.show(multiSession);
+        multiText.setText("");
+    }
+
+    /**
+     * Handles a key press while playing several boards
+     * Only the squares that change are painted again
+     * 
+     * @param event the key pressed
+     */
+    private void enterMultiText(KeyEvent event) {
+        // Enter starts a new game once the last one is over
+        if (multiSession.isOver()) {
+            if (event.getCode() == KeyCode.ENTER) {
+                newMultiGame();
+            }
+            return;
+        }
+        if (event.getCode().isLetterKey()) {
+            int column = multiSession.column();
+            if (multiSession.type(event.getCode().getChar().charAt(0))) {
+                multiView.paintTyped(column);
+            }
+        }
+        if (event.getCode() == KeyCode.BACK_SPACE) {
+            if (multiSession.backspace()) {
+                multiView.paintTyped(multiSession.column());
+            }
+        }
+        if (event.getCode() == KeyCode.ENTER) {
+            // Measures scoring every board and painting the row together
+            long time = Metrics.start();
+            GuessResult result = multiSession.submit();
+            if (result.isAccepted()) {
+                multiView.paintRow(result.row());
+            }
+            Metrics.record(Metrics.Probe.MULTI_SUBMIT, time);
+            multiText.setText(result.isAccepted() ? "" : result.reason());
+
+            if (result.isWin()) {
+                multiText.setText("You solved every board! Press Enter to play again");
+            }
+            if (result.isLoss()) {
+                // Lists the answers of every board that wasn't solved
+                StringBuilder missed = new StringBuilder("The words were");
+                for (int board = 0; board < multiSession.boards(); board++) {
+                    if (multiSession.solvedRow(board) < 0) {
+                        missed.append(' ').append(WordDictionary.unpack(multiSession.answer(board)));
+                    }
                 }
-                
-                // Chnages the colour of each rectangle
-                changeColor();
-                // Moves down a row and resets the collumn
-                row++;
-                collumn = 0;
-                // After 6 guesses the lose text appears
-                if (row >= 6 && !win) {
-                    // Prints the wordle
-                    Text loseText = new Text("The Wordle was " + chosenWord);
-                    loseText.setFont(new Font("Times New Roman", 40));
-                    rootPane.getChildren().add(loseText);
-
-                    // Displays the restart button
-                    restartButton = new Button("Restart");
-                    restartButton.setOnAction(new EventHandler<ActionEvent>() {
-
-                        /**
-                         * Runs when the button has been clicked
-                         * 
-                         * @param event the event that occured with the button
-                         */
-                        @Override
-                        public void handle(ActionEvent event) {
-                            restartApplication(stage);
-                        }
+                multiText.setText(missed.append(". Press Enter to play again").toString());
+            }
+        }
+    }
+
+    /**
+     * Sets every colour that changes with dark mode
+     */
+    private void applyTheme() {
+        Background background = darkMode ? DARK_BACKGROUND : null;
+        startPane.setBackground(background);
+        gamePane.setBackground(background);
+        helpPane.setBackground(background);
+        statsPane.setBackground(background);
+        multiPane.setBackground(background);
+        if (multiView != null) {
+            multiView.setDarkMode(darkMode);
+        }
+
+        for (Text themed : themedText) {
+            themed.setFill(darkMode ? WHITE : BLACK);
+        }
+        for (Rectangle button : themedButtons) {
+            button.setFill(darkMode ? WHITE : BLACK);
+        }
+        for (Text buttonText : themedButtonText) {
+            buttonText.setFill(darkMode ? BLACK : WHITE);
+        }
 
-                    });
-                    rootPane.getChildren().add(restartButton);
+        // The squares that haven't been guessed and the letters that haven't been used change with the theme
+        if (gameScene != null) {
+            for (int x = 0; x < 5; x++) {
+                for (int y = session.row(); y < 6; y++) {
+                    square[x][y].setFill(darkMode ? BLACK : GREY);
                 }
+            }
+            for (int i = 0; i < letter.length; i++) {
+                paintLetter(i);
+            }
+        }
+    }
 
-                if (win) {
-                    // If the user got the word then display the win text
-                    Text winText = new Text("You got the word!");
-                    winText.setFont(new Font("Times New Roman", 40));
-                    rootPane.getChildren().add(winText);
-
-                    // Display the restart button as well
-                    restartButton = new Button("Restart");
-                    restartButton.setOnAction(new EventHandler<ActionEvent>() {
-
-                        /**
-                         * Runs when the button has been clicked
-                         * 
-                         * @param event the event that occured with the button
-                         */
-                        @Override
-                        public void handle(ActionEvent event) {
-                            restartApplication(stage);
-                        }
+    /**
+     * Empties every square and resets the colour of every letter without making any new objects
+     * Setting a property to the value it already has doesn't change anything on the screen, and only the
+     * letters that were guessed last game are painted again
+     */
+    private void clearBoard() {
+        for (int x = 0; x < 5; x++) {
+            for (int y = 0; y < 6; y++) {
+                text[x][y].setText("");
+                square[x][y].setFill(darkMode ? BLACK : GREY);
+                square[x][y].setStroke(null);
+            }
+        }
+        for (int letters = letterStates.reset(); letters != 0; letters &= letters - 1) {
+            paintLetter(Integer.numberOfTrailingZeros(letters));
+        }
+        remainingText.setText(possibleWords.count() + " words remaining");
+        hintText.setText("");
+        messageText.setText("");
+        suggestionText.setText("");
+        endText.setVisible(false);
+        restartButton.setVisible(false);
+    }
+
+    /**
+     * Shows a game that was loaded from the save file on the game screen
+     * Every guess, its colours and the letters typed are put straight into the squares
+     */
+    private void showSession() {
+        clearBoard();
+        possibleWords.reset();
+        for (int row = 0; row < session.row(); row++) {
+            for (int x = 0; x < 5; x++) {
+                text[x][row].setText(String.valueOf(session.letterAt(x, row)));
+            }
+            changeColor(session.guess(row), session.feedback(row), row);
+            possibleWords.apply(session.guess(row), session.feedback(row));
+        }
+        // The letters typed into the current row are outlined the same way as when they were typed
+        for (int x = 0; x < session.column(); x++) {
+            char typed = session.letterAt(x, session.row());
+            text[x][session.row()].setText(String.valueOf(typed));
+            prefixNodes[x + 1] = prefixes.step(prefixNodes[x], typed - 'A');
+            square[x][session.row()].setStroke(prefixNodes[x + 1] == WordDawg.NONE ? RED : null);
+        }
+        remainingText.setText(possibleWords.count() + (possibleWords.count() == 1 ? " word remaining" : " words remaining"));
+    }
+
+    /**
+     * Saves the game being played so it can be carried on next time, or removes the save file if there isn't one
+     * Games on a server and games that are over or haven't started aren't saved
+     */
+    private void saveGame() {
+        try {
+            if (session == null || client != null || session.isOver() || (session.row() == 0 && session.column() == 0)) {
+                Files.deleteIfExists(SAVE_FILE);
+                return;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(6 + GameSession.SNAPSHOT_SIZE);
+            buffer.putInt(SAVE_MAGIC).putShort(SAVE_VERSION);
+            session.snapshot(buffer);
+            Files.write(SAVE_FILE, buffer.array());
+        } catch (IOException e) {
+            System.err.println("Couldn't save the game: " + e);
+        }
+    }
+
+    /**
+     * Loads the game saved last time into session
+     * A game isn't loaded while keys are being recorded since the key log can only start games from a seed
+     * 
+     * @return boolean true if a game was loaded
+     */
+    private boolean loadGame() {
+        if (client != null || keyLog != null || !Files.exists(SAVE_FILE)) {
+            return false;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(SAVE_FILE));
+            if (buffer.remaining() != 6 + GameSession.SNAPSHOT_SIZE || buffer.getInt() != SAVE_MAGIC
+                    || buffer.getShort() != SAVE_VERSION) {
+                throw new IllegalArgumentException("Not a saved game");
+            }
+            session = GameSession.restore(dictionary, WordLists.get().answers(), buffer);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Couldn't load the saved game: " + e);
+            return false;
+        }
+        // An adversarial game doesn't have a word until it is over
+        chosenWord = session.answer() == WordDictionary.INVALID ? null : WordDictionary.unpack(session.answer());
+        return true;
+    }
+
+    /**
+     * Starts a new game on the same screen
+     */
+    private void resetGame() {
+        // Keys still waiting were pressed for the last game so they are thrown away instead of typed into either game
+        keyQueue.clear();
+        handledCount = 0;
+        newGame();
+        clearBoard();
+    }
+
+    /**
+     * Starts looking for the best guess in the background and shows it under the board
+     * The hint is updated every time a better guess is found
+     */
+    private void showHint() {
+        if (session.isOver()) {
+            return;
+        }
+        // Stops the last search if it is still running
+        if (hintSearch != null) {
+            hintSearch.cancel();
+        }
+        if (hintEngine == null) {
+            hintEngine = new HintEngine(dictionary, ForkJoinPool.commonPool());
+            hintCache = new HintCache(hintEngine, HintCache.DEFAULT_CAPACITY);
+            // The opening book made with java HintCache is read in the background, until then hints are searched for
+            hintCache.openBook(WordLists.get()).exceptionally(e -> {
+                System.err.println("Couldn't open the opening book: " + e.getMessage());
+                return null;
+            });
+        }
+
+        hintText.setText("Thinking...");
+        long time = Metrics.start();
+        HintEngine.Search search = hintCache.suggest(possibleWords, hint -> Platform.runLater(() -> {
+            // Ignores updates from a search that has been replaced
+            if (hintSearch != null && !hintSearch.isCancelled() && hintSearch.best() == hint) {
+                hintText.setText("Try " + hint);
+            }
+        }));
+        hintSearch = search;
+        // A cancelled search never completes normally so only hints that were found are timed
+        search.result().thenAccept(hint -> Metrics.record(Metrics.Probe.HINT, time));
+    }
+
+    /**
+     * Handles every key waiting in the queue in the order they were pressed
+     */
+    private void handleKeys() {
+        for (int key = keyQueue.poll(); key != KeyQueue.EMPTY; key = keyQueue.poll()) {
+            // Records the key as it is handled so keys thrown away by keyQueue.clear are never replayed
+            if (keyLog != null) {
+                keyLog.key(key);
+            }
+            // Runs the function that handles inputting text and measures how long it takes
+            long time = Metrics.start();
+            enterText(keyEvents[key]);
+            Metrics.record(Metrics.Probe.KEY_PRESS, time);
+            if (handledCount == handledTimes.length) {
+                handledTimes = Arrays.copyOf(handledTimes, handledCount * 2);
+            }
+            handledTimes[handledCount++] = keyQueue.polledTime();
+        }
+        if (metricsText.isVisible()) {
+            metricsText.setText(Metrics.summary());
+        }
+    }
+
+    /**
+     * Plays a tile animation unless too many are already playing
+     * An animation that is still playing starts again from the beginning so it is only counted once
+     * 
+     * @param animation the animation
+     */
+    private void play(Animation animation) {
+        if (animation.getStatus() != Animation.Status.RUNNING) {
+            if (Metrics.activeAnimations() >= MAX_ANIMATIONS) {
+                return;
+            }
+            Metrics.animationStarted();
+        }
+        animation.playFromStart();
+    }
 
-                    });
-                    rootPane.getChildren().add(restartButton);
+    /**
+     * Code used to display text typed by the user
+     * 
+     * @param event the key pressed
+     */
+    private void enterText(KeyEvent event) {
+        // Stops inputting text once the game is over or while a guess is waiting for the server
+        if (!session.isOver() && !waitingForServer) {
+            // Checks if the user has inputted a letter
+            if (event.getCode().isLetterKey()) {
+                int column = session.column();
+                int row = session.row();
+                // The current text box is set to that letter if there is still room in the row
+                if (session.type(event.getCode().getChar().charAt(0))) {
+                    char typed = session.letterAt(column, row);
+                    text[column][row].setText(String.valueOf(typed));
+                    // Outlines the square in red once the letters typed so far can't start any word
+                    prefixNodes[column + 1] = prefixes.step(prefixNodes[column], typed - 'A');
+                    square[column][row].setStroke(prefixNodes[column + 1] == WordDawg.NONE ? RED : null);
+                    play(typeAnimations[column][row]);
                 }
             }
-            // If the backspace key is clicked then clear the text and go back a collumn
+            // If enter is clicked then submit the word, it is only accepted if it exists in the english language
+            if (event.getCode() == KeyCode.ENTER) {
+                if (client != null) {
+                    submitRemote();
+                } else {
+                    long time = Metrics.start();
+                    GuessResult result = submit();
+                    Metrics.record(Metrics.Probe.SUBMIT, time);
+                    showResult(result);
+                }
+            }
+            // If the backspace key is clicked then clear the last letter and go back a column
             if (event.getCode() == KeyCode.BACK_SPACE) {
-                if (collumn == 4 && !(text[collumn][row].getText().equals(""))) {
-                    // If the user is on the last collumn then just clear the text
-                    text[collumn][row].setText("");
-                } else if (collumn > 0) {
-                    // Otherwise just go back one and clear the text
-                    collumn--;
-                    text[collumn][row].setText("");
+                if (session.backspace()) {
+                    text[session.column()][session.row()].setText("");
+                    square[session.column()][session.row()].setStroke(null);
                 }
+            }
+        }
+    }
 
+    /**
+     * Looks for the closest words to a guess that isn't in the word list away from the JavaFX thread and shows them
+     * next to the message
+     * 
+     * @param typed the packed guess
+     */
+    private void suggestWords(int typed) {
+        GameSession current = session;
+        int row = session.row();
+        spellIndex.thenApplyAsync(index -> {
+            long time = Metrics.start();
+            int[] words = index.suggest(typed, SUGGESTIONS);
+            Metrics.record(Metrics.Probe.SUGGEST, time);
+            return words;
+        }).thenAccept(words -> Platform.runLater(() -> {
+            // Ignores the words if the guess has been changed since
+            if (words.length == 0 || session != current || session.row() != row || session.typedWord() != typed) {
+                return;
             }
+            StringBuilder builder = new StringBuilder("Did you mean ");
+            for (int i = 0; i < words.length; i++) {
+                if (i > 0) {
+                    builder.append(i == words.length - 1 ? " or " : ", ");
+                }
+                builder.append(WordDictionary.unpack(words[i]));
+            }
+            suggestionText.setText(builder.append('?').toString());
+        }));
+    }
 
+    /**
+     * Shows what happened to a guess: the reason it wasn't accepted, or the colours and the end of the game
+     * 
+     * @param result what happened to the guess
+     */
+    private void showResult(GuessResult result) {
+        // Tells the user why the guess wasn't accepted instead of doing nothing
+        messageText.setText(result.isAccepted() ? "" : result.reason());
+        suggestionText.setText("");
+        if (result.outcome() == GuessResult.Outcome.NOT_A_WORD) {
+            suggestWords(result.guess());
         }
+        if (result.isAccepted()) {
+            // Play a small animation of rotating the squares
+            play(rowAnimations[result.row()]);
+
+            // Chnages the colour of each rectangle
+            long time = Metrics.start();
+            changeColor(result.guess(), result.feedback(), result.row());
+            Metrics.record(Metrics.Probe.CHANGE_COLOR, time);
+            // Removes every word that doesn't match the colours and updates the counter
+            possibleWords.apply(result.guess(), result.feedback());
+            remainingText.setText(possibleWords.count() + (possibleWords.count() == 1 ? " word remaining" : " words remaining"));
+            // Saves every finished game for the stats screen
+            if (result.isWin() || result.isLoss()) {
+                recordGame(result);
+                if (keyLog != null) {
+                    keyLog.endGame(session);
+                }
+            }
+            // After 6 guesses the lose text appears with the wordle
+            if (result.isLoss()) {
+                showEndText("The Wordle was " + chosenWord);
+            }
+
+            // If the user got the word then display the win text
+            if (result.isWin()) {
+                showEndText("You got the word!");
+            }
+        }
+
     }
 
     /**
-     * Returns a string of each letter in the row of text
+     * Submits the current row on this computer
      * 
-     * @param collumn collumn number that is selected
-     * @param row row number that is selected
-     * @return String the word that has been entered
+     * @return GuessResult what happened to the guess
      */
-    private String wordTyped(int collumn, int row) {
-        String word = text[collumn - 5][row].getText() + text[collumn - 4][row].getText()
-                + text[collumn - 3][row].getText() + text[collumn - 2][row].getText()
-                + text[collumn - 1][row].getText();
+    private GuessResult submit() {
+        GuessResult result = session.submit();
+        // An adversarial game only has a word once it has been lost
+        if (result.isLoss() && chosenWord == null) {
+            chosenWord = WordDictionary.unpack(session.answer());
+        }
+        return result;
+    }
 
-        word = word.toLowerCase();
-        return word;
+    /**
+     * Sends the current row to the server in the background and shows the result once it answers
+     * Keys are ignored while the guess is waiting so the row can't change under it
+     */
+    private void submitRemote() {
+        // Only guesses the session would accept are sent to the server
+        GuessResult rejected = session.check();
+        if (rejected != null) {
+            showResult(rejected);
+            return;
+        }
+        int guess = session.typedWord();
+        GameSession current = session;
+        waitingForServer = true;
+        messageText.setText("Waiting for the server...");
+        suggestionText.setText("");
+        CompletableFuture.supplyAsync(() -> client.guess(guess), clientExecutor).whenComplete((feedback, error) -> Platform.runLater(() -> {
+            // Ignores the answer if a new game was started while it was waiting
+            if (session != current) {
+                return;
+            }
+            waitingForServer = false;
+            if (error != null) {
+                serverFailed(error);
+                return;
+            }
+            GuessResult result = session.accept(guess, feedback);
+            if (result.isLoss()) {
+                chosenWord = client.answer();
+            }
+            showResult(result);
+        }));
     }
 
     /**
-     * Function that changes the colour of each rectangle when the enter key is clicked
-     * Got the idea for the logic behind the colour change here: https://stackoverflow.com/questions/71617350/duplicate-letters-in-wordle
+     * Tells the user the server couldn't be reached, the row can be submitted again
+     * 
+     * @param error what went wrong
      */
-    private void changeColor() {
-        // Makes each letter uppercase and splits each letter into a different position in a list
-        chosenWord = chosenWord.toUpperCase();
-        String[] chosenLetters = chosenWord.split("");
+    private void serverFailed(Throwable error) {
+        Throwable cause = error.getCause() != null ? error.getCause() : error;
+        System.err.println("Game server: " + cause.getMessage());
+        // The game screen is only built once it is first shown
+        if (messageText != null) {
+            messageText.setText("Couldn't reach the server");
+        }
+    }
 
-        // Make every tile dark grey to show a guess has been made regardless of right letters
-        for (int x = 0; x < 5; x++) {
-            square[x][row].setFill(Paint.valueOf("darkgrey"));
-            letter[alphabet.indexOf(text[x][row].getText())].setFill(Paint.valueOf("darkgrey"));
-        }
-
-        // First loop through each letter and if letter in the typed word is the same position as the one in the chosenWord then make it green
-        for(int x = 0; x < 5; x++) {
-            if(text[x][row].getText().equals(chosenLetters[x])) {
-                square[x][row].setFill(Paint.valueOf("Green"));
-                // Make the letter at the top of the screen the same colour as well
-                letter[alphabet.indexOf(text[x][row].getText())].setFill(Paint.valueOf("Green"));
-                // Remove the letter from the letters to avoid repeats
-                chosenLetters[x] = "-";
-                greenLetters++;
-            }
-        }
-
-        // Now check if the letters remaining are inside of the word typed
-        // They will have to be in the wrong position since we already checked for the right position
-        for(int x = 0; x < 5; x++) {
-            //if(!chosenLetters[x].equals("-")) {
-                if(Arrays.asList(chosenLetters).contains(text[x][row].getText())) {
-                    square[x][row].setFill(Paint.valueOf("mediumorchid"));
-                    letter[alphabet.indexOf(text[x][row].getText())].setFill(Paint.valueOf("mediumorchid"));
-                    chosenLetters[Arrays.asList(chosenLetters).indexOf(text[x][row].getText())] = "-";
+    /**
+     * Turns a key into the number used in a key log
+     * 
+     * @param code the key
+     * @return int 0 to 25 for a letter, KeyLog.ENTER, KeyLog.BACKSPACE or -1 for any other key
+     */
+    static int logKey(KeyCode code) {
+        if (code.isLetterKey()) {
+            return code.getChar().charAt(0) - 'A';
+        }
+        if (code == KeyCode.ENTER) {
+            return KeyLog.ENTER;
+        }
+        if (code == KeyCode.BACK_SPACE) {
+            return KeyLog.BACKSPACE;
+        }
+        return -1;
+    }
+
+    /**
+     * Makes one key event for every key in a key log
+     * 
+     * @return KeyEvent[] the events, index 0 is A, then KeyLog.ENTER and KeyLog.BACKSPACE
+     */
+    static KeyEvent[] keyEvents() {
+        KeyEvent[] events = new KeyEvent[KeyLog.BACKSPACE + 1];
+        for (int i = 0; i < 26; i++) {
+            events[i] = new KeyEvent(KeyEvent.KEY_PRESSED, "", "", KeyCode.getKeyCode(String.valueOf((char) ('A' + i))),
+                    false, false, false, false);
+        }
+        events[KeyLog.ENTER] = new KeyEvent(KeyEvent.KEY_PRESSED, "", "", KeyCode.ENTER, false, false, false, false);
+        events[KeyLog.BACKSPACE] = new KeyEvent(KeyEvent.KEY_PRESSED, "", "", KeyCode.BACK_SPACE, false, false, false, false);
+        return events;
+    }
+
+    /**
+     * Plays a key log through the game screen one key per frame and prints whether every game ended on the
+     * board that was recorded
+     * Each key goes through the same key handler and queue as a key the player pressed, so the replay is drawn
+     * and timed like real typing, KeyReplay plays a log as fast as possible without a screen instead
+     * Nothing from the replay is saved to the stats or recorded again
+     * 
+     * @param file the key log
+     */
+    private void replayKeys(Path file) {
+        KeyLog.Reader log;
+        try {
+            log = KeyLog.Reader.open(file);
+        } catch (UncheckedIOException | IllegalArgumentException e) {
+            System.err.println("Couldn't replay the keys: " + e.getMessage());
+            return;
+        }
+        boolean wasHardMode = hardMode;
+        boolean wasAdversarial = adversarial;
+        AnswerPicker.Tier wasTier = tier;
+        KeyLog recording = keyLog;
+        GameStats saved = stats;
+        GameClient remote = client;
+        keyLog = null;
+        stats = null;
+        client = null;
+        stage.setScene(gameScene());
+        EventHandler<? super KeyEvent> keyHandler = gameScene.getOnKeyPressed();
+
+        new AnimationTimer() {
+
+            /**
+             * Number of games started so far
+             */
+            private int games;
+            /**
+             * Number of games that didn't end on the recorded board
+             */
+            private int problems;
+            /**
+             * Number of keys sent so far
+             */
+            private long keys;
+            /**
+             * Time the replay started in nanoseconds
+             */
+            private final long start = System.nanoTime();
+
+            /**
+             * Runs once per frame, reads the log up to the next key and sends it to the key handler
+             * 
+             * @param now the time of the frame
+             */
+            @Override
+            public void handle(long now) {
+                // Waits for the last key to be handled so a game is only checked once all of its keys are
+                if (!keyQueue.isEmpty()) {
+                    return;
+                }
+                for (int record = log.next(); record != KeyLog.EOF; record = log.next()) {
+                    if (record == KeyLog.GAME) {
+                        hardMode = log.hardMode();
+                        adversarial = log.adversarial();
+                        tier = log.tier();
+                        // Starts on the word that was played instead of picking it again from the seed
+                        newGame(log.seed(), log.adversarial() ? WordDictionary.INVALID : log.answer());
+                        clearBoard();
+                        games++;
+                    } else if (record == KeyLog.END) {
+                        String problem = log.compare(session);
+                        if (problem != null) {
+                            problems++;
+                            System.out.println("Game " + games + ": " + problem);
+                        }
+                    } else {
+                        keyHandler.handle(keyEvents[record]);
+                        keys++;
+                        return;
+                    }
                 }
-            //}   
+
+                stop();
+                long elapsed = System.nanoTime() - start;
+                System.out.printf("Replayed %d games and %d keys in %.1f ms (%.0f keys/sec), %d problems%n", games,
+                        keys, elapsed / 1e6, keys / (elapsed / 1e9), problems);
+                hardMode = wasHardMode;
+                adversarial = wasAdversarial;
+                tier = wasTier;
+                keyLog = recording;
+                stats = saved;
+                client = remote;
+            }
+        }.start();
+    }
+
+    /**
+     * Saves a finished game to the stats file
+     * 
+     * @param result the last guess of the game
+     */
+    private void recordGame(GuessResult result) {
+        if (stats == null) {
+            return;
         }
+        int answer = result.isWin() ? result.guess() : WordDictionary.pack(chosenWord);
+        try {
+            stats.record(answer, result.row() + 1, result.isWin());
+        } catch (UncheckedIOException e) {
+            System.err.println("Couldn't save the game: " + e.getMessage());
+        }
+    }
 
-        // Once all 5 letters are green then set win to true
-        if (greenLetters >= 5) {
-            win = true;
-            greenLetters = 0;
+    /**
+     * Displays the win or lose text and the restart button under the board
+     * 
+     * @param message the text to show
+     */
+    private void showEndText(String message) {
+        endText.setText(message);
+        endText.setVisible(true);
+        restartButton.setVisible(true);
+    }
+
+    /**
+     * Function that changes the colour of each rectangle once a guess has been accepted
+     * The colours come from the score worked out by the game session
+     * Every square is painted once with its final colour and only the letters whose state went up are painted
+     * 
+     * @param guess the packed guess that was accepted
+     * @param feedback the colours of the squares from 0 to 242
+     * @param row the row of the guess
+     */
+    private void changeColor(int guess, int feedback, int row) {
+        for (int x = 0; x < 5; x++) {
+            square[x][row].setFill(colorPaint(Scorer.colorAt(feedback, x)));
         }
 
-        greenLetters = 0;
+        // Make the letters at the top of the screen the same colour as well, a letter never goes back down
+        for (int letters = letterStates.apply(guess, feedback); letters != 0; letters &= letters - 1) {
+            paintLetter(Integer.numberOfTrailingZeros(letters));
+        }
     }
 
     /**
-     * Used when the restart button is clicked and resets all variables
+     * Paints one letter at the top of the screen for what the user knows about it
      * 
-     * @param stage main display
+     * @param i the letter from 0 (A) to 25 (Z)
+     */
+    private void paintLetter(int i) {
+        int state = letterStates.state(i);
+        letter[i].setFill(state == LetterStates.UNUSED ? (darkMode ? WHITE : BLACK) : colorPaint(state - 1));
+    }
+
+    /**
+     * Returns the paint for the colour of a square
+     * 
+     * @param color Scorer.GREY, Scorer.PURPLE or Scorer.GREEN
+     * @return Paint dark grey, purple or green
+     */
+    static Paint colorPaint(int color) {
+        return color == Scorer.GREEN ? GREEN : color == Scorer.PURPLE ? PURPLE : DARK_GREY;
+    }
+
+    /**
+     * Used when the restart button is clicked and starts a new game on the same screen
+     * Records how long it took until the user can type again
+     */
+    private void restartApplication() {
+        long time = Metrics.start();
+        resetGame();
+        Metrics.record(Metrics.Probe.RESTART, time);
+    }
+
+    /**
+     * Runs when the program closes, saves the timings if they were asked for and closes the stats
      */
-    private void restartApplication(Stage stage) {
-        init();
-        start(stage);
+    @Override
+    public void stop() {
+        if (hintSearch != null) {
+            hintSearch.cancel();
+        }
+        if (clientExecutor != null) {
+            clientExecutor.shutdownNow();
+        }
+        Metrics.exportIfRequested();
+        saveGame();
+        if (stats != null) {
+            stats.close();
+        }
+        if (keyLog != null) {
+            keyLog.close();
+        }
     }
 
     /**
@@ -730,7 +2073,11 @@ public class Wordle extends Application {
      * @param args list of arguments
      */
     public static void main(String[] args) {
+        // Startup is measured from here
+        Metrics.launched();
+        // Starts reading the word lists while JavaFX is starting up
+        WordLists.load();
         launch();
     }
 
-}
\ No newline at end of file
+}